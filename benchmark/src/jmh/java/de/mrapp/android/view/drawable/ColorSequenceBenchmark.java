@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark, which measures the performance of looking up the color, which is used by a {@link
+ * CircularProgressDrawable} on each frame, if a sequence of colors is used.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+@State(Scope.Thread)
+public class ColorSequenceBenchmark {
+
+    /**
+     * The time in milliseconds, which passes between two frames at 60 frames per second.
+     */
+    private static final long FRAME_INTERVAL = 16L;
+
+    /**
+     * The number of colors, which are precomputed per transition between two colors.
+     */
+    private static final int RESOLUTION = 32;
+
+    /**
+     * The sequence, which is benchmarked.
+     */
+    private ColorSequence sequence;
+
+    /**
+     * The geometry, which provides the cycle and the fraction of the cycle.
+     */
+    private SpinnerGeometry geometry;
+
+    /**
+     * The time, which has passed since the animation has been started, in milliseconds.
+     */
+    private long elapsedTime;
+
+    /**
+     * Initializes the benchmark.
+     */
+    @Setup
+    public void setUp() {
+        sequence = new ColorSequence(new int[]{0xff4285f4, 0xffdb4437, 0xfff4b400, 0xff0f9d58},
+                RESOLUTION);
+        geometry = new SpinnerGeometry();
+        elapsedTime = 0;
+    }
+
+    /**
+     * Looks up the color of a single frame.
+     *
+     * @return The color, which has been looked up, as an {@link Integer} value
+     */
+    @Benchmark
+    public int getColor() {
+        elapsedTime += FRAME_INTERVAL;
+        geometry.update(elapsedTime);
+        return sequence.getColor(geometry.getCycle(), geometry.getCycleFraction());
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark, which measures the performance of deciding, whether a frame of the animation of a
+ * {@link CircularProgressDrawable} should be drawn, when the frame rate is limited.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+@State(Scope.Thread)
+public class FramePacerBenchmark {
+
+    /**
+     * The time between two frames on a display with a refresh rate of 120 Hz in milliseconds.
+     */
+    private static final long FRAME_INTERVAL = 8L;
+
+    /**
+     * The pacer, which is benchmarked.
+     */
+    private FramePacer framePacer;
+
+    /**
+     * The time of the current frame in milliseconds.
+     */
+    private long frameTime;
+
+    /**
+     * Initializes the benchmark.
+     */
+    @Setup
+    public void setUp() {
+        framePacer = new FramePacer();
+        framePacer.setMaxFrameRate(60);
+        framePacer.setAdaptive(true);
+        frameTime = 0;
+    }
+
+    /**
+     * Decides, whether the next frame should be drawn.
+     *
+     * @return True, if the frame should be drawn, false otherwise
+     */
+    @Benchmark
+    public boolean shouldDraw() {
+        frameTime += FRAME_INTERVAL;
+        return framePacer.shouldDraw(frameTime);
+    }
+
+}
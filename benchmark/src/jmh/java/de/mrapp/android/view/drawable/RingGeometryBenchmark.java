@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A benchmark, which measures the performance of computing the bounds of the arc, which is drawn by
+ * a {@link CircularProgressDrawable}, when the bounds of the drawable are changed.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+@State(Scope.Thread)
+public class RingGeometryBenchmark {
+
+    /**
+     * The thickness of the arc in pixels.
+     */
+    private static final int THICKNESS = 15;
+
+    /**
+     * The geometry, which is benchmarked.
+     */
+    private RingGeometry geometry;
+
+    /**
+     * The width of the drawable's bounds in pixels, which is varied on each invocation.
+     */
+    private int width;
+
+    /**
+     * Initializes the benchmark.
+     */
+    @Setup
+    public void setUp() {
+        geometry = new RingGeometry();
+        width = 96;
+    }
+
+    /**
+     * Computes the bounds of the arc for landscape and portrait bounds.
+     *
+     * @param blackhole
+     *         The blackhole, which is used to consume the results, as an instance of the class
+     *         {@link Blackhole}
+     */
+    @Benchmark
+    public void update(final Blackhole blackhole) {
+        width = width == 96 ? 192 : 96;
+        geometry.update(8, 8, 8 + width, 152, THICKNESS);
+        blackhole.consume(geometry.getLeft());
+        blackhole.consume(geometry.getTop());
+        blackhole.consume(geometry.getRight());
+        blackhole.consume(geometry.getBottom());
+    }
+
+}
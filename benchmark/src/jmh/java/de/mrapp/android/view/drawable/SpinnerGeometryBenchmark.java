@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A benchmark, which measures the performance of computing the arc, which is drawn by a {@link
+ * CircularProgressDrawable} on each frame.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+@State(Scope.Thread)
+public class SpinnerGeometryBenchmark {
+
+    /**
+     * The time between two frames on a display with a refresh rate of 60 Hz in milliseconds.
+     */
+    private static final long FRAME_INTERVAL = 16L;
+
+    /**
+     * The geometry, which is benchmarked.
+     */
+    private SpinnerGeometry geometry;
+
+    /**
+     * The time, which has passed since the animation has been started, in milliseconds.
+     */
+    private long elapsedTime;
+
+    /**
+     * Initializes the benchmark.
+     */
+    @Setup
+    public void setUp() {
+        geometry = new SpinnerGeometry();
+        elapsedTime = 0;
+    }
+
+    /**
+     * Computes the arc for the next frame.
+     *
+     * @param blackhole
+     *         The blackhole, which is used to consume the results, as an instance of the class
+     *         {@link Blackhole}
+     */
+    @Benchmark
+    public void update(final Blackhole blackhole) {
+        elapsedTime += FRAME_INTERVAL;
+        geometry.update(elapsedTime);
+        blackhole.consume(geometry.getStartAngle());
+        blackhole.consume(geometry.getSweepAngle());
+        blackhole.consume(geometry.getCycleFraction());
+    }
+
+}
@@ -13,21 +13,30 @@
  */
 package de.mrapp.android.view;
 
+import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.os.PowerManager;
+import android.os.SystemClock;
 import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StyleRes;
 import android.util.AttributeSet;
 import android.view.View;
 
-import de.mrapp.android.util.ThemeUtil;
 import de.mrapp.android.view.drawable.CircularProgressDrawable;
+import de.mrapp.util.Condition;
 
 /**
  * A circular progress bar, which has been designed according to the Material design guidelines.
@@ -40,6 +49,18 @@ import de.mrapp.android.view.drawable.CircularProgressDrawable;
  */
 public class CircularProgressBar extends View {
 
+    /**
+     * The default delay in milliseconds, which must pass after the method {@link #show()} has been
+     * called, before the progress bar is shown.
+     */
+    public static final long DEFAULT_SHOW_DELAY = 500L;
+
+    /**
+     * The default minimum time in milliseconds, the progress bar is shown, once it has been shown
+     * by using the method {@link #show()}.
+     */
+    public static final long DEFAULT_MIN_SHOW_TIME = 500L;
+
     /**
      * The color of the circular progress bar.
      */
@@ -50,11 +71,129 @@ public class CircularProgressBar extends View {
      */
     private int thickness;
 
+    /**
+     * True, if the circular progress bar is indeterminate, false otherwise.
+     */
+    private boolean indeterminate;
+
+    /**
+     * The maximum frame rate of the circular progress bar's animation.
+     */
+    private int maxFrameRate;
+
+    /**
+     * True, if the adaptive frame rate is enabled, false otherwise.
+     */
+    private boolean adaptiveFrameRate;
+
+    /**
+     * The intrinsic size of the circular progress bar in pixels, if the normal thickness is used.
+     */
+    private int normalSize;
+
+    /**
+     * The intrinsic size of the circular progress bar in pixels, if the small thickness is used.
+     */
+    private int smallSize;
+
+    /**
+     * The maximum thickness in pixels, which causes the small intrinsic size to be used.
+     */
+    private int smallThickness;
+
+    /**
+     * The width measure specification, which has been passed to the view during the last measure
+     * pass.
+     */
+    private int lastWidthMeasureSpec;
+
+    /**
+     * The height measure specification, which has been passed to the view during the last
+     * measure pass.
+     */
+    private int lastHeightMeasureSpec;
+
+    /**
+     * The desired width in pixels, which has been used during the last measure pass, or -1, if
+     * the view has not been measured yet.
+     */
+    private int lastDesiredWidth;
+
+    /**
+     * The desired height in pixels, which has been used during the last measure pass, or -1, if
+     * the view has not been measured yet.
+     */
+    private int lastDesiredHeight;
+
+    /**
+     * True, if the indeterminate animation should be run on the render thread, if supported,
+     * false otherwise.
+     */
+    private boolean renderThreadAnimation;
+
+    /**
+     * The delay in milliseconds, which must pass after the method {@link #show()} has been called,
+     * before the progress bar is shown.
+     */
+    private long showDelay;
+
+    /**
+     * The minimum time in milliseconds, the progress bar is shown, once it has been shown by using
+     * the method {@link #show()}.
+     */
+    private long minShowTime;
+
+    /**
+     * The time in milliseconds, when the progress bar has been shown by using the method {@link
+     * #show()}, or -1, if it has not been shown yet.
+     */
+    private long showTime;
+
+    /**
+     * True, if the progress bar has been hidden by using the method {@link #hide()}, false
+     * otherwise.
+     */
+    private boolean dismissed;
+
+    /**
+     * True, if the runnable, which shows the progress bar, has been posted, false otherwise.
+     */
+    private boolean showPosted;
+
+    /**
+     * True, if the runnable, which hides the progress bar, has been posted, false otherwise.
+     */
+    private boolean hidePosted;
+
+    /**
+     * The runnable, which is posted in order to show the progress bar after a delay.
+     */
+    private Runnable delayedShowRunnable;
+
+    /**
+     * The runnable, which is posted in order to hide the progress bar, once it has been shown for
+     * the minimum time.
+     */
+    private Runnable delayedHideRunnable;
+
+    /**
+     * The receiver, which is notified, when the device's power save mode changes, while the view
+     * is attached to a window.
+     */
+    private BroadcastReceiver powerSaveModeReceiver;
+
     /**
      * The drawable, which is shown by the view.
      */
     private CircularProgressDrawable circularProgressDrawable;
 
+    /**
+     * The animated vector drawable, which is shown instead of the {@link
+     * CircularProgressDrawable}, if the indeterminate animation is run on the render thread, or
+     * null, if it has not been created yet.
+     */
+    private Drawable renderThreadDrawable;
+
     /**
      * Initializes the view.
      *
@@ -63,10 +202,44 @@ public class CircularProgressBar extends View {
      *         the type {@link AttributeSet} or null, if no attributes should be obtained
      */
     private void initialize(@Nullable final AttributeSet attributeSet) {
+        maxFrameRate = CircularProgressDrawable.FRAME_RATE_DEFAULT;
+        adaptiveFrameRate = false;
+        lastDesiredWidth = -1;
+        lastDesiredHeight = -1;
+        showTime = -1;
+        dismissed = false;
+        showPosted = false;
+        hidePosted = false;
+        delayedShowRunnable = createDelayedShowRunnable();
+        delayedHideRunnable = createDelayedHideRunnable();
+        powerSaveModeReceiver = createPowerSaveModeReceiver();
+        obtainDimensions();
         obtainStyledAttributes(attributeSet);
         initializeDrawable();
     }
 
+    /**
+     * Obtains the dimensions, which are used to determine the intrinsic size of the view. They are
+     * only obtained once in order to avoid resource lookups during measuring.
+     */
+    private void obtainDimensions() {
+        normalSize =
+                getResources().getDimensionPixelSize(R.dimen.circular_progress_bar_size_normal);
+        smallSize = getResources().getDimensionPixelSize(R.dimen.circular_progress_bar_size_small);
+        smallThickness = getResources()
+                .getDimensionPixelSize(R.dimen.circular_progress_bar_thickness_small);
+    }
+
+    /**
+     * Returns the intrinsic size of the circular progress bar, depending on its thickness.
+     *
+     * @return The intrinsic size of the circular progress bar in pixels as an {@link Integer}
+     * value
+     */
+    private int getIntrinsicSize() {
+        return getThickness() <= smallThickness ? smallSize : normalSize;
+    }
+
     /**
      * Obtains the view's attributes from a specific attribute set.
      *
@@ -81,6 +254,10 @@ public class CircularProgressBar extends View {
         try {
             obtainColor(typedArray);
             obtainThickness(typedArray);
+            obtainIndeterminate(typedArray);
+            obtainRenderThreadAnimation(typedArray);
+            obtainShowDelay(typedArray);
+            obtainMinShowTime(typedArray);
         } finally {
             typedArray.recycle();
         }
@@ -94,7 +271,7 @@ public class CircularProgressBar extends View {
      *         {@link TypedArray}. The typed array may not be null
      */
     private void obtainColor(@NonNull final TypedArray typedArray) {
-        int defaultColor = ThemeUtil.getColor(getContext(), R.attr.colorAccent);
+        int defaultColor = ThemeColorCache.getColor(getContext(), R.attr.colorAccent);
         color = typedArray.getColor(R.styleable.CircularProgressBar_android_color, defaultColor);
     }
 
@@ -113,12 +290,291 @@ public class CircularProgressBar extends View {
                         defaultThickness);
     }
 
+    /**
+     * Obtains, whether the progress bar is indeterminate, or not, from a specific typed array.
+     *
+     * @param typedArray
+     *         The typed array, which should be used to obtain, whether the progress bar is
+     *         indeterminate, or not, as an instance of the class {@link TypedArray}. The typed
+     *         array may not be null
+     */
+    private void obtainIndeterminate(@NonNull final TypedArray typedArray) {
+        indeterminate =
+                typedArray.getBoolean(R.styleable.CircularProgressBar_android_indeterminate, true);
+    }
+
+    /**
+     * Obtains, whether the indeterminate animation should be run on the render thread, or not,
+     * from a specific typed array.
+     *
+     * @param typedArray
+     *         The typed array, which should be used to obtain, whether the indeterminate animation
+     *         should be run on the render thread, or not, as an instance of the class {@link
+     *         TypedArray}. The typed array may not be null
+     */
+    private void obtainRenderThreadAnimation(@NonNull final TypedArray typedArray) {
+        renderThreadAnimation = typedArray
+                .getBoolean(R.styleable.CircularProgressBar_renderThreadAnimation, false);
+    }
+
+    /**
+     * Obtains the delay, which must pass before the progress bar is shown, from a specific typed
+     * array.
+     *
+     * @param typedArray
+     *         The typed array, the delay should be obtained from, as an instance of the class
+     *         {@link TypedArray}. The typed array may not be null
+     */
+    private void obtainShowDelay(@NonNull final TypedArray typedArray) {
+        showDelay = typedArray.getInt(R.styleable.CircularProgressBar_showDelay,
+                (int) DEFAULT_SHOW_DELAY);
+    }
+
+    /**
+     * Obtains the minimum time, the progress bar is shown, from a specific typed array.
+     *
+     * @param typedArray
+     *         The typed array, the minimum time should be obtained from, as an instance of the
+     *         class {@link TypedArray}. The typed array may not be null
+     */
+    private void obtainMinShowTime(@NonNull final TypedArray typedArray) {
+        minShowTime = typedArray.getInt(R.styleable.CircularProgressBar_minShowTime,
+                (int) DEFAULT_MIN_SHOW_TIME);
+    }
+
+    /**
+     * Creates and returns a runnable, which shows the progress bar, unless it has been hidden in
+     * the meantime.
+     *
+     * @return The runnable, which has been created, as an instance of the type {@link Runnable}
+     */
+    private Runnable createDelayedShowRunnable() {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                showPosted = false;
+
+                if (!dismissed) {
+                    showTime = SystemClock.uptimeMillis();
+                    setVisibility(VISIBLE);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Creates and returns a runnable, which hides the progress bar.
+     *
+     * @return The runnable, which has been created, as an instance of the type {@link Runnable}
+     */
+    private Runnable createDelayedHideRunnable() {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                hidePosted = false;
+                showTime = -1;
+                setVisibility(GONE);
+            }
+
+        };
+    }
+
+    /**
+     * Creates and returns a receiver, which adapts the drawable, when the device's power save mode
+     * changes.
+     *
+     * @return The receiver, which has been created, as an instance of the class {@link
+     * BroadcastReceiver}
+     */
+    private BroadcastReceiver createPowerSaveModeReceiver() {
+        return new BroadcastReceiver() {
+
+            @Override
+            public void onReceive(final Context context, final Intent intent) {
+                circularProgressDrawable.setPowerSaveMode(isPowerSaveMode());
+            }
+
+        };
+    }
+
+    /**
+     * Registers the receiver, which is notified, when the device's power save mode changes. On
+     * devices with an API level less than 21, the receiver is not registered.
+     */
+    @SuppressLint("InlinedApi")
+    private void registerPowerSaveModeReceiver() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            IntentFilter filter = new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+            getContext().registerReceiver(powerSaveModeReceiver, filter);
+        }
+    }
+
+    /**
+     * Unregisters the receiver, which is notified, when the device's power save mode changes.
+     */
+    private void unregisterPowerSaveModeReceiver() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            getContext().unregisterReceiver(powerSaveModeReceiver);
+        }
+    }
+
+    /**
+     * Removes all runnables, which have been posted in order to show or hide the progress bar.
+     */
+    private void removePendingVisibilityChanges() {
+        removeCallbacks(delayedShowRunnable);
+        removeCallbacks(delayedHideRunnable);
+        showPosted = false;
+        hidePosted = false;
+    }
+
     /**
      * Initializes the drawable, which is shown by the view.
      */
     private void initializeDrawable() {
         circularProgressDrawable = new CircularProgressDrawable(getColor(), getThickness());
         circularProgressDrawable.setCallback(this);
+        circularProgressDrawable.setIndeterminate(isIndeterminate());
+        circularProgressDrawable.setMaxFrameRate(getMaxFrameRate());
+        circularProgressDrawable.setAdaptiveFrameRate(isAdaptiveFrameRate());
+        circularProgressDrawable.setState(getDrawableState());
+    }
+
+    /**
+     * Returns, whether the device is currently in power save mode, or not.
+     *
+     * @return True, if the device is currently in power save mode, false otherwise
+     */
+    @SuppressLint("NewApi")
+    private boolean isPowerSaveMode() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            PowerManager powerManager =
+                    (PowerManager) getContext().getSystemService(Context.POWER_SERVICE);
+            return powerManager != null && powerManager.isPowerSaveMode();
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns, whether the indeterminate animation is currently run on the render thread, or not.
+     * This requires the render thread animation to be enabled, the progress bar to be
+     * indeterminate, as well as API level 24 or greater and hardware acceleration.
+     *
+     * @return True, if the indeterminate animation is currently run on the render thread, false
+     * otherwise
+     */
+    private boolean isRenderThreadAnimationUsed() {
+        return renderThreadAnimation && indeterminate &&
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && isHardwareAccelerated();
+    }
+
+    /**
+     * Returns the animated vector drawable, which is used to run the indeterminate animation on
+     * the render thread. The drawable is created, if necessary.
+     *
+     * @return The animated vector drawable as an instance of the class {@link Drawable}. The
+     * drawable may not be null
+     */
+    @NonNull
+    @TargetApi(Build.VERSION_CODES.N)
+    private Drawable obtainRenderThreadDrawable() {
+        if (renderThreadDrawable == null) {
+            renderThreadDrawable =
+                    getContext().getDrawable(R.drawable.circular_progress_bar_indeterminate)
+                            .mutate();
+            renderThreadDrawable.setTint(getColor());
+            adaptRenderThreadDrawableBounds();
+            renderThreadDrawable.setCallback(this);
+            renderThreadDrawable.setState(getDrawableState());
+        }
+
+        return renderThreadDrawable;
+    }
+
+    /**
+     * Adapts the bounds of the drawable, which is animated on the render thread, depending on the
+     * bounds of the drawable, which is animated on the UI thread. As the vector path of the former
+     * would be distorted in non-square bounds, it is drawn within the largest square, which is
+     * centered within the bounds, like the arc of the class {@link CircularProgressDrawable}.
+     */
+    private void adaptRenderThreadDrawableBounds() {
+        Rect bounds = circularProgressDrawable.getBounds();
+        int size = Math.min(bounds.width(), bounds.height());
+        int left = bounds.left + (bounds.width() - size) / 2;
+        int top = bounds.top + (bounds.height() - size) / 2;
+        renderThreadDrawable.setBounds(left, top, left + size, top + size);
+    }
+
+    /**
+     * Returns the drawable, which is currently shown by the view.
+     *
+     * @return The drawable, which is currently shown by the view, as an instance of the class
+     * {@link Drawable}. The drawable may not be null
+     */
+    @NonNull
+    @SuppressLint("NewApi")
+    private Drawable getActiveDrawable() {
+        return isRenderThreadAnimationUsed() ? obtainRenderThreadDrawable() :
+                circularProgressDrawable;
+    }
+
+    /**
+     * Returns, whether the animation of the view is currently running, or not.
+     *
+     * @return True, if the animation is currently running, false otherwise
+     */
+    private boolean isAnimationRunning() {
+        return circularProgressDrawable.isRunning() || (renderThreadDrawable != null &&
+                ((Animatable) renderThreadDrawable).isRunning());
+    }
+
+    /**
+     * Starts the animation of the drawable, which is currently shown by the view, and stops the
+     * animation of the other one.
+     */
+    @SuppressLint("NewApi")
+    private void startAnimation() {
+        if (isRenderThreadAnimationUsed()) {
+            circularProgressDrawable.stop();
+            ((Animatable) obtainRenderThreadDrawable()).start();
+        } else {
+            stopRenderThreadAnimation();
+            circularProgressDrawable.start();
+        }
+    }
+
+    /**
+     * Stops the animations of all drawables.
+     */
+    private void stopAnimation() {
+        circularProgressDrawable.stop();
+        stopRenderThreadAnimation();
+    }
+
+    /**
+     * Stops the animation, which is run on the render thread, if the corresponding drawable has
+     * already been created.
+     */
+    private void stopRenderThreadAnimation() {
+        if (renderThreadDrawable != null) {
+            ((Animatable) renderThreadDrawable).stop();
+        }
+    }
+
+    /**
+     * Adapts, which drawable is animated, if the animation is currently running. This must be
+     * done, when the drawable, which is shown by the view, may have changed.
+     */
+    private void adaptAnimation() {
+        if (isAnimationRunning()) {
+            startAnimation();
+        }
+
+        invalidate();
     }
 
     /**
@@ -213,10 +669,14 @@ public class CircularProgressBar extends View {
      * @param color
      *         The color, which should be set, as an {@link Integer} value
      */
+    @SuppressLint("NewApi")
     public final void setColor(@ColorInt final int color) {
         this.color = color;
-        initializeDrawable();
-        invalidate();
+        circularProgressDrawable.setColor(color);
+
+        if (renderThreadDrawable != null) {
+            renderThreadDrawable.setTint(color);
+        }
     }
 
     /**
@@ -229,21 +689,266 @@ public class CircularProgressBar extends View {
     }
 
     /**
-     * Sets the thickness of the circular progress bar.
+     * Sets the thickness of the circular progress bar. If the indeterminate animation is run on
+     * the render thread, the thickness is not taken into account, but scales with the size of the
+     * progress bar instead.
      *
      * @param thickness
      *         The thickness, which should be set, in pixels as an {@link Integer} value
      */
     public final void setThickness(final int thickness) {
+        circularProgressDrawable.setThickness(thickness);
+        int previousIntrinsicSize = getIntrinsicSize();
         this.thickness = thickness;
-        initializeDrawable();
-        invalidate();
+
+        if (getIntrinsicSize() != previousIntrinsicSize) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Returns, whether the circular progress bar is indeterminate, or not.
+     *
+     * @return True, if the circular progress bar is indeterminate, false otherwise
+     */
+    public final boolean isIndeterminate() {
+        return indeterminate;
+    }
+
+    /**
+     * Sets, whether the circular progress bar should be indeterminate, or not. If not
+     * indeterminate, the progress, which has been set by using the method {@link
+     * #setProgress(float)}, is shown.
+     *
+     * @param indeterminate
+     *         True, if the circular progress bar should be indeterminate, false otherwise
+     */
+    public final void setIndeterminate(final boolean indeterminate) {
+        this.indeterminate = indeterminate;
+        circularProgressDrawable.setIndeterminate(indeterminate);
+        adaptAnimation();
+    }
+
+    /**
+     * Returns, whether the indeterminate animation should be run on the render thread, if
+     * supported, or not.
+     *
+     * @return True, if the indeterminate animation should be run on the render thread, if
+     * supported, false otherwise
+     */
+    public final boolean isRenderThreadAnimation() {
+        return renderThreadAnimation;
+    }
+
+    /**
+     * Sets, whether the indeterminate animation should be run on the render thread, if supported,
+     * or not. If enabled, an animated vector drawable is shown instead of the {@link
+     * CircularProgressDrawable}, which keeps spinning, even if the UI thread is busy. This
+     * requires API level 24 or greater and hardware acceleration. Otherwise, as well as in the
+     * determinate mode, the {@link CircularProgressDrawable} is used as a fallback. When running
+     * on the render thread, the thickness scales with the size of the progress bar and the frame
+     * rate, as well as the phase key, are not taken into account.
+     *
+     * @param renderThreadAnimation
+     *         True, if the indeterminate animation should be run on the render thread, if
+     *         supported, false otherwise
+     */
+    public final void setRenderThreadAnimation(final boolean renderThreadAnimation) {
+        this.renderThreadAnimation = renderThreadAnimation;
+        adaptAnimation();
+    }
+
+    /**
+     * Returns the progress of the circular progress bar.
+     *
+     * @return The progress of the circular progress bar as a {@link Float} value between 0 and 1
+     */
+    public final float getProgress() {
+        return circularProgressDrawable.getProgress();
+    }
+
+    /**
+     * Sets the progress of the circular progress bar. The progress is only shown, if the progress
+     * bar is not indeterminate. This method may be called from any thread.
+     *
+     * @param progress
+     *         The progress, which should be set, as a {@link Float} value between 0 and 1
+     */
+    public final void setProgress(@FloatRange(from = 0, to = 1) final float progress) {
+        circularProgressDrawable.setProgress(progress);
+    }
+
+    /**
+     * Returns the maximum frame rate of the circular progress bar's animation.
+     *
+     * @return The maximum frame rate of the circular progress bar's animation as an {@link
+     * Integer} value, <code>CircularProgressDrawable.FRAME_RATE_UNLIMITED</code> or
+     * <code>CircularProgressDrawable.FRAME_RATE_DEFAULT</code>
+     */
+    public final int getMaxFrameRate() {
+        return maxFrameRate;
+    }
+
+    /**
+     * Sets the maximum frame rate of the circular progress bar's animation.
+     *
+     * @param frameRate
+     *         The frame rate, which should be set, as an {@link Integer} value,
+     *         <code>CircularProgressDrawable.FRAME_RATE_UNLIMITED</code> or
+     *         <code>CircularProgressDrawable.FRAME_RATE_DEFAULT</code>
+     */
+    public final void setMaxFrameRate(final int frameRate) {
+        circularProgressDrawable.setMaxFrameRate(frameRate);
+        this.maxFrameRate = frameRate;
+    }
+
+    /**
+     * Returns, whether the adaptive frame rate is enabled, or not.
+     *
+     * @return True, if the adaptive frame rate is enabled, false otherwise
+     */
+    public final boolean isAdaptiveFrameRate() {
+        return adaptiveFrameRate;
+    }
+
+    /**
+     * Sets, whether the adaptive frame rate should be enabled, or not. If enabled, the frame rate
+     * is lowered, when janky frames are detected or reported, or when the device is in power save
+     * mode.
+     *
+     * @param adaptive
+     *         True, if the adaptive frame rate should be enabled, false otherwise
+     */
+    public final void setAdaptiveFrameRate(final boolean adaptive) {
+        this.adaptiveFrameRate = adaptive;
+        circularProgressDrawable.setAdaptiveFrameRate(adaptive);
+    }
+
+    /**
+     * Reports, that a janky frame has been encountered. If the adaptive frame rate is enabled,
+     * this causes the frame rate to be lowered.
+     */
+    public final void reportJank() {
+        circularProgressDrawable.reportJank();
+    }
+
+    /**
+     * Shows the progress bar after the delay, which has been set by using the method {@link
+     * #setShowDelay(long)}, has passed. If the method {@link #hide()} is called in the meantime,
+     * the progress bar is not shown at all and its animation is never started. This prevents the
+     * progress bar from flickering, if the operation, whose progress is shown, finishes quickly.
+     * The progress bar should initially be hidden by setting its visibility to {@link #GONE}. This
+     * method must be called on the UI thread.
+     */
+    public final void show() {
+        showTime = -1;
+        dismissed = false;
+        removeCallbacks(delayedHideRunnable);
+        hidePosted = false;
+
+        if (!showPosted) {
+            postDelayed(delayedShowRunnable, showDelay);
+            showPosted = true;
+        }
+    }
+
+    /**
+     * Hides the progress bar. If the progress bar has been shown by using the method {@link
+     * #show()}, it is hidden not before the minimum time, which has been set by using the method
+     * {@link #setMinShowTime(long)}, has passed. If the progress bar has not been shown yet, it is
+     * not shown at all. This method must be called on the UI thread.
+     */
+    public final void hide() {
+        dismissed = true;
+        removeCallbacks(delayedShowRunnable);
+        showPosted = false;
+        long shownTime = SystemClock.uptimeMillis() - showTime;
+
+        if (showTime == -1 || shownTime >= minShowTime) {
+            setVisibility(GONE);
+        } else if (!hidePosted) {
+            postDelayed(delayedHideRunnable, minShowTime - shownTime);
+            hidePosted = true;
+        }
+    }
+
+    /**
+     * Returns the delay, which must pass after the method {@link #show()} has been called, before
+     * the progress bar is shown.
+     *
+     * @return The delay in milliseconds as a {@link Long} value
+     */
+    public final long getShowDelay() {
+        return showDelay;
+    }
+
+    /**
+     * Sets the delay, which must pass after the method {@link #show()} has been called, before the
+     * progress bar is shown.
+     *
+     * @param showDelay
+     *         The delay, which should be set, in milliseconds as a {@link Long} value. The delay
+     *         must be at least 0
+     */
+    public final void setShowDelay(final long showDelay) {
+        Condition.INSTANCE.ensureAtLeast(showDelay, 0, "The delay must be at least 0");
+        this.showDelay = showDelay;
+    }
+
+    /**
+     * Returns the minimum time, the progress bar is shown, once it has been shown by using the
+     * method {@link #show()}.
+     *
+     * @return The minimum time in milliseconds as a {@link Long} value
+     */
+    public final long getMinShowTime() {
+        return minShowTime;
+    }
+
+    /**
+     * Sets the minimum time, the progress bar should be shown, once it has been shown by using the
+     * method {@link #show()}.
+     *
+     * @param minShowTime
+     *         The minimum time, which should be set, in milliseconds as a {@link Long} value. The
+     *         minimum time must be at least 0
+     */
+    public final void setMinShowTime(final long minShowTime) {
+        Condition.INSTANCE.ensureAtLeast(minShowTime, 0, "The minimum time must be at least 0");
+        this.minShowTime = minShowTime;
+    }
+
+    /**
+     * Returns the key, which is used to share the phase of the circular progress bar's animation
+     * with other progress bars.
+     *
+     * @return The key, which is used to share the phase of the animation, as an instance of the
+     * class {@link Object} or null, if the phase is not shared
+     */
+    @Nullable
+    public final Object getPhaseKey() {
+        return circularProgressDrawable.getPhaseKey();
+    }
+
+    /**
+     * Sets the key, which should be used to share the phase of the circular progress bar's
+     * animation with other progress bars. All progress bars, which use the same key, e.g. the
+     * identifier of a task, whose progress is shown, are animated in phase. When a progress bar,
+     * which is contained by a list, is recycled and bound to a task again, this allows to continue
+     * the animation without a visible restart and without allocating any objects.
+     *
+     * @param key
+     *         The key, which should be set, as an instance of the class {@link Object} or null, if
+     *         the phase should not be shared
+     */
+    public final void setPhaseKey(@Nullable final Object key) {
+        circularProgressDrawable.setPhaseKey(key);
     }
 
     @Override
     public final void draw(final Canvas canvas) {
         super.draw(canvas);
-        circularProgressDrawable.draw(canvas);
+        getActiveDrawable().draw(canvas);
     }
 
     @Override
@@ -251,7 +956,37 @@ public class CircularProgressBar extends View {
         super.onAttachedToWindow();
 
         if (circularProgressDrawable != null) {
-            circularProgressDrawable.start();
+            registerPowerSaveModeReceiver();
+            circularProgressDrawable.setPowerSaveMode(isPowerSaveMode());
+
+            if (getVisibility() == VISIBLE && isShown()) {
+                startAnimation();
+            }
+        }
+    }
+
+    @Override
+    protected final void onDetachedFromWindow() {
+        removePendingVisibilityChanges();
+
+        if (circularProgressDrawable != null) {
+            unregisterPowerSaveModeReceiver();
+            stopAnimation();
+        }
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected final void onWindowVisibilityChanged(final int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        if (circularProgressDrawable != null) {
+            circularProgressDrawable.setVisible(visibility == VISIBLE, false);
+        }
+
+        if (renderThreadDrawable != null) {
+            renderThreadDrawable.setVisible(visibility == VISIBLE, false);
         }
     }
 
@@ -261,21 +996,32 @@ public class CircularProgressBar extends View {
         super.onVisibilityChanged(changedView, visibility);
 
         if (circularProgressDrawable != null) {
-            if (visibility == VISIBLE) {
-                circularProgressDrawable.start();
+            if (getVisibility() == VISIBLE && isShown() && getWindowToken() != null) {
+                startAnimation();
             } else {
-                circularProgressDrawable.stop();
+                stopAnimation();
             }
         }
     }
 
     @Override
     protected final void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
-        int measuredWidth =
-                MeasureSpec.getSize(widthMeasureSpec) + getPaddingLeft() + getPaddingRight();
-        int measuredHeight =
-                MeasureSpec.getSize(heightMeasureSpec) + getPaddingTop() + getPaddingBottom();
-        setMeasuredDimension(measuredWidth, measuredHeight);
+        int intrinsicSize = getIntrinsicSize();
+        int desiredWidth = intrinsicSize + getPaddingLeft() + getPaddingRight();
+        int desiredHeight = intrinsicSize + getPaddingTop() + getPaddingBottom();
+
+        if (widthMeasureSpec == lastWidthMeasureSpec &&
+                heightMeasureSpec == lastHeightMeasureSpec && desiredWidth == lastDesiredWidth &&
+                desiredHeight == lastDesiredHeight) {
+            setMeasuredDimension(getMeasuredWidth(), getMeasuredHeight());
+        } else {
+            lastWidthMeasureSpec = widthMeasureSpec;
+            lastHeightMeasureSpec = heightMeasureSpec;
+            lastDesiredWidth = desiredWidth;
+            lastDesiredHeight = desiredHeight;
+            setMeasuredDimension(resolveSize(desiredWidth, widthMeasureSpec),
+                    resolveSize(desiredHeight, heightMeasureSpec));
+        }
     }
 
     @Override
@@ -285,11 +1031,49 @@ public class CircularProgressBar extends View {
         circularProgressDrawable
                 .setBounds(getPaddingLeft(), getPaddingTop(), width - getPaddingRight(),
                         height - getPaddingBottom());
+
+        if (renderThreadDrawable != null) {
+            adaptRenderThreadDrawableBounds();
+        }
+    }
+
+    @Override
+    protected final void drawableStateChanged() {
+        super.drawableStateChanged();
+        int[] state = getDrawableState();
+        boolean changed = false;
+
+        if (circularProgressDrawable != null && circularProgressDrawable.isStateful()) {
+            changed = circularProgressDrawable.setState(state);
+        }
+
+        if (renderThreadDrawable != null && renderThreadDrawable.isStateful()) {
+            changed |= renderThreadDrawable.setState(state);
+        }
+
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public final void jumpDrawablesToCurrentState() {
+        super.jumpDrawablesToCurrentState();
+
+        if (circularProgressDrawable != null) {
+            circularProgressDrawable.jumpToCurrentState();
+        }
+
+        if (renderThreadDrawable != null) {
+            renderThreadDrawable.jumpToCurrentState();
+        }
     }
 
     @Override
     protected final boolean verifyDrawable(@NonNull final Drawable drawable) {
-        return drawable == circularProgressDrawable || super.verifyDrawable(drawable);
+        return drawable == circularProgressDrawable ||
+                (renderThreadDrawable != null && drawable == renderThreadDrawable) ||
+                super.verifyDrawable(drawable);
     }
 
 }
\ No newline at end of file
@@ -18,22 +18,27 @@ import android.animation.Animator.AnimatorListener;
 import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
-import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Outline;
+import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.LayerDrawable;
-import android.graphics.drawable.RippleDrawable;
-import android.graphics.drawable.ShapeDrawable;
-import android.graphics.drawable.StateListDrawable;
-import android.graphics.drawable.shapes.OvalShape;
 import android.os.Build;
 import android.util.AttributeSet;
+import android.util.LruCache;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewOutlineProvider;
 import android.view.ViewPropertyAnimator;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.Interpolator;
-import android.widget.ImageButton;
-import android.widget.RelativeLayout;
+import android.widget.Button;
+
+import java.util.Arrays;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.DrawableRes;
@@ -41,8 +46,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StyleRes;
 import androidx.core.content.ContextCompat;
-import de.mrapp.android.util.ThemeUtil;
-import de.mrapp.android.util.ViewUtil;
 import de.mrapp.util.Condition;
 
 /**
@@ -50,6 +53,11 @@ import de.mrapp.util.Condition;
  * <p>
  * Refer to http://www.google.com/design/spec/components/buttons-floating-action- button.html for
  * further information on the Material design guidelines.
+ * <p>
+ * The shadow, the background, including its ripple effect, and the icon are drawn by a single
+ * view, which handles touch, focus and accessibility events itself. The view always has a fixed
+ * size, which depends on its {@link Size}. Touches outside of the circular background, e.g. on the
+ * shadow, are not handled by the view.
  *
  * @author Michael Rapp
  * @since 1.0.0
@@ -58,7 +66,7 @@ import de.mrapp.util.Condition;
  * library
  */
 @Deprecated
-public class FloatingActionButton extends RelativeLayout {
+public class FloatingActionButton extends View {
 
     /**
      * Contains all possible sizes of a floating action button.
@@ -125,9 +133,292 @@ public class FloatingActionButton extends RelativeLayout {
     }
 
     /**
-     * The image button, which is used to show the floating action button's background and icon.
+     * An editor, which allows to change multiple properties of a floating action button at once.
+     * The changes are applied together by calling the method {@link #apply()}, which causes the
+     * button's drawables to be rebuilt at most once and a single layout pass to be requested.
+     */
+    public final class Editor {
+
+        /**
+         * The size, which should be set, or null, if the size should not be changed.
+         */
+        private Size size;
+
+        /**
+         * The color, which should be set.
+         */
+        private int color;
+
+        /**
+         * True, if the color should be changed, false otherwise.
+         */
+        private boolean colorChanged;
+
+        /**
+         * The activated color, which should be set.
+         */
+        private int activatedColor;
+
+        /**
+         * True, if the activated color should be changed, false otherwise.
+         */
+        private boolean activatedColorChanged;
+
+        /**
+         * The pressed color, which should be set.
+         */
+        private int pressedColor;
+
+        /**
+         * True, if the pressed color should be changed, false otherwise.
+         */
+        private boolean pressedColorChanged;
+
+        /**
+         * The disabled color, which should be set.
+         */
+        private int disabledColor;
+
+        /**
+         * True, if the disabled color should be changed, false otherwise.
+         */
+        private boolean disabledColorChanged;
+
+        /**
+         * The icon, which should be set, or null, if no icon or an icon resource should be set.
+         */
+        private Drawable icon;
+
+        /**
+         * The resource id of the icon, which should be set, or 0, if no icon resource should be
+         * set.
+         */
+        private int iconResourceId;
+
+        /**
+         * True, if the icon should be changed, false otherwise.
+         */
+        private boolean iconChanged;
+
+        /**
+         * Creates a new editor, which does not change any properties.
+         */
+        private Editor() {
+            this.size = null;
+            this.colorChanged = false;
+            this.activatedColorChanged = false;
+            this.pressedColorChanged = false;
+            this.disabledColorChanged = false;
+            this.icon = null;
+            this.iconResourceId = 0;
+            this.iconChanged = false;
+        }
+
+        /**
+         * Sets the floating action button's size.
+         *
+         * @param size
+         *         The size, which should be set, as a value of the enum {@link Size}. The size may
+         *         not be null
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setSize(@NonNull final Size size) {
+            Condition.INSTANCE.ensureNotNull(size, "The size may not be null");
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Sets the floating action button's color.
+         *
+         * @param color
+         *         The color, which should be set, as an {@link Integer} value
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setColor(@ColorInt final int color) {
+            this.color = color;
+            this.colorChanged = true;
+            return this;
+        }
+
+        /**
+         * Sets the color, which should be used as an overlay, when the floating action button is
+         * activated.
+         *
+         * @param color
+         *         The color, which should be set, as an {@link Integer} value
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setActivatedColor(@ColorInt final int color) {
+            this.activatedColor = color;
+            this.activatedColorChanged = true;
+            return this;
+        }
+
+        /**
+         * Sets the color, which should be used as an overlay, when the floating action button is
+         * pressed.
+         *
+         * @param color
+         *         The color, which should be set, as an {@link Integer} value
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setPressedColor(@ColorInt final int color) {
+            this.pressedColor = color;
+            this.pressedColorChanged = true;
+            return this;
+        }
+
+        /**
+         * Sets the color, which should be used as an overlay, when the floating action button is
+         * disabled.
+         *
+         * @param color
+         *         The color, which should be set, as an {@link Integer} value
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setDisabledColor(@ColorInt final int color) {
+            this.disabledColor = color;
+            this.disabledColorChanged = true;
+            return this;
+        }
+
+        /**
+         * Sets the floating action button's icon.
+         *
+         * @param icon
+         *         The icon, which should be set, as an instance of the class {@link Drawable} or
+         *         null, if no icon should be set
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setIcon(@Nullable final Drawable icon) {
+            this.icon = icon;
+            this.iconResourceId = 0;
+            this.iconChanged = true;
+            return this;
+        }
+
+        /**
+         * Sets the floating action button's icon.
+         *
+         * @param resourceId
+         *         The resource id of the icon, which should be set, as an {@link Integer} value.
+         *         The resource id must correspond to a valid drawable resource
+         * @return The editor, this method has been called upon, as an instance of the class
+         * {@link Editor}
+         */
+        @NonNull
+        public Editor setIcon(@DrawableRes final int resourceId) {
+            this.icon = null;
+            this.iconResourceId = resourceId;
+            this.iconChanged = true;
+            return this;
+        }
+
+        /**
+         * Applies all changes, which have been made by using the editor, to the floating action
+         * button. The button's shadow, size and background are each adapted at most once and
+         * only, if affected by the changes.
+         */
+        public void apply() {
+            boolean sizeChanged = size != null && size != FloatingActionButton.this.size;
+            boolean backgroundChanged = false;
+
+            if (sizeChanged) {
+                FloatingActionButton.this.size = size;
+            }
+
+            if (colorChanged && color != FloatingActionButton.this.color) {
+                FloatingActionButton.this.color = color;
+                backgroundChanged = true;
+            }
+
+            if (activatedColorChanged &&
+                    activatedColor != FloatingActionButton.this.activatedColor) {
+                FloatingActionButton.this.activatedColor = activatedColor;
+                backgroundChanged = true;
+            }
+
+            if (pressedColorChanged && pressedColor != FloatingActionButton.this.pressedColor) {
+                FloatingActionButton.this.pressedColor = pressedColor;
+                backgroundChanged = true;
+            }
+
+            if (disabledColorChanged && disabledColor != FloatingActionButton.this.disabledColor) {
+                FloatingActionButton.this.disabledColor = disabledColor;
+                backgroundChanged = true;
+            }
+
+            if (iconChanged) {
+                adaptIcon(iconResourceId != 0 ?
+                        ContextCompat.getDrawable(getContext(), iconResourceId) : icon);
+            }
+
+            if (sizeChanged) {
+                adaptShadow();
+            }
+
+            if (backgroundChanged) {
+                adaptBackground();
+            } else if (sizeChanged || iconChanged) {
+                adaptDrawableBounds();
+            }
+
+            if (sizeChanged) {
+                requestLayout();
+            }
+
+            invalidate();
+        }
+
+    }
+
+    /**
+     * The index of the shadow size within the arrays, which contain the dimensions of floating
+     * action buttons. The sizes of the buttons are stored at the ordinals of the enum {@link
+     * Size}.
+     */
+    private static final int SHADOW_SIZE_INDEX = Size.values().length;
+
+    /**
+     * The maximum number of display densities, whose dimensions are cached.
+     */
+    private static final int MAX_DIMENSIONS_CACHE_SIZE = 4;
+
+    /**
+     * The dimensions of floating action buttons in pixels, which have already been resolved, by
+     * display density.
+     */
+    private static final LruCache<Integer, int[]> DIMENSIONS =
+            new LruCache<>(MAX_DIMENSIONS_CACHE_SIZE);
+
+    /**
+     * The dimensions in pixels, which correspond to the current display density.
+     */
+    private int[] dimensions;
+
+    /**
+     * The drawable, which is used to show the floating action button's circular background,
+     * including its ripple effect.
+     */
+    private Drawable circleDrawable;
+
+    /**
+     * The floating action button's icon or null, if no icon has been set.
      */
-    private ImageButton imageButton;
+    private Drawable icon;
 
     /**
      * The floating action button's size.
@@ -173,21 +464,81 @@ public class FloatingActionButton extends RelativeLayout {
      *         the type {@link AttributeSet} or null, if no attributes should be obtained
      */
     private void initialize(@Nullable final AttributeSet attributeSet) {
-        inflateLayout();
+        setClickable(true);
+        setFocusable(true);
+        obtainDimensions();
         obtainStyledAttributes(attributeSet);
         adaptShadow();
-        adaptImageButtonSize();
-        adaptImageButtonBackground();
+        adaptBackground();
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            setOutlineProvider(createOutlineProvider());
+        }
+    }
+
+    /**
+     * Creates and returns an outline provider, which restricts the floating action button's
+     * outline to its circular background, excluding the shadow.
+     *
+     * @return The outline provider, which has been created, as an instance of the class {@link
+     * ViewOutlineProvider}
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private ViewOutlineProvider createOutlineProvider() {
+        return new ViewOutlineProvider() {
+
+            @Override
+            public void getOutline(final View view, final Outline outline) {
+                if (circleDrawable != null) {
+                    outline.setOval(circleDrawable.getBounds());
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Returns, whether a specific position is located within the floating action button's
+     * circular background, or not.
+     *
+     * @param x
+     *         The horizontal position in pixels, relative to the view, as a {@link Float} value
+     * @param y
+     *         The vertical position in pixels, relative to the view, as a {@link Float} value
+     * @return True, if the position is located within the circular background, false otherwise
+     */
+    private boolean isWithinCircle(final float x, final float y) {
+        Rect bounds = circleDrawable.getBounds();
+        float radius = bounds.width() / 2f;
+        float distanceX = x - bounds.exactCenterX();
+        float distanceY = y - bounds.exactCenterY();
+        return distanceX * distanceX + distanceY * distanceY <= radius * radius;
     }
 
     /**
-     * Inflates the view's layout.
+     * Obtains the dimensions of floating action buttons, which correspond to the current display
+     * density. The dimensions are only resolved once per density and shared by all floating
+     * action buttons in order to avoid resource lookups during measuring.
      */
-    private void inflateLayout() {
-        imageButton = new ImageButton(getContext());
-        LayoutParams layoutParams = new LayoutParams(0, 0);
-        layoutParams.addRule(RelativeLayout.CENTER_IN_PARENT, RelativeLayout.TRUE);
-        addView(imageButton, layoutParams);
+    private void obtainDimensions() {
+        Resources resources = getResources();
+        int densityDpi = resources.getDisplayMetrics().densityDpi;
+        int[] dimensions = DIMENSIONS.get(densityDpi);
+
+        if (dimensions == null) {
+            dimensions = new int[SHADOW_SIZE_INDEX + 1];
+            dimensions[Size.NORMAL.ordinal()] =
+                    resources.getDimensionPixelSize(R.dimen.floating_action_button_size_normal);
+            dimensions[Size.SMALL.ordinal()] =
+                    resources.getDimensionPixelSize(R.dimen.floating_action_button_size_small);
+            dimensions[Size.LARGE.ordinal()] =
+                    resources.getDimensionPixelSize(R.dimen.floating_action_button_size_large);
+            dimensions[SHADOW_SIZE_INDEX] =
+                    resources.getDimensionPixelSize(R.dimen.floating_action_button_shadow_size);
+            DIMENSIONS.put(densityDpi, dimensions);
+        }
+
+        this.dimensions = dimensions;
     }
 
     /**
@@ -235,7 +586,7 @@ public class FloatingActionButton extends RelativeLayout {
      *         {@link TypedArray}. The typed array may not be null
      */
     private void obtainColor(@NonNull final TypedArray typedArray) {
-        int defaultColor = ThemeUtil.getColor(getContext(), R.attr.colorAccent);
+        int defaultColor = ThemeColorCache.getColor(getContext(), R.attr.colorAccent);
         color = typedArray.getColor(R.styleable.FloatingActionButton_android_color, defaultColor);
     }
 
@@ -322,107 +673,81 @@ public class FloatingActionButton extends RelativeLayout {
     }
 
     /**
-     * Adapts the size of the image button, which is used to show the floating image button's
-     * background and icon, depending on the floating button's size.
+     * Adapts the bounds of the floating action button's background and icon, depending on the
+     * button's size. Both are centered within the view. The icon is drawn at its intrinsic size,
+     * but scaled down uniformly, if it is larger than the background.
      */
-    private void adaptImageButtonSize() {
+    private void adaptDrawableBounds() {
         int pixelSize = getPixelSize();
-        LayoutParams layoutParams = (LayoutParams) imageButton.getLayoutParams();
-        layoutParams.width = pixelSize;
-        layoutParams.height = pixelSize;
-        imageButton.setLayoutParams(layoutParams);
-        imageButton.requestLayout();
-    }
+        int left = (getWidth() - pixelSize) / 2;
+        int top = (getHeight() - pixelSize) / 2;
 
-    /**
-     * Adapts the background of the image button, which is used to show the floating image button's
-     * background and icon, depending on the floating button's colors.
-     */
-    @SuppressLint("NewApi")
-    private void adaptImageButtonBackground() {
-        Drawable background = createStateListBackgroundDrawable();
+        if (circleDrawable != null) {
+            circleDrawable.setBounds(left, top, left + pixelSize, top + pixelSize);
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            Drawable rippleDrawable = new RippleDrawable(
-                    new ColorStateList(new int[][]{{}}, new int[]{getPressedColor()}), background,
-                    null);
-            ViewUtil.setBackground(imageButton, rippleDrawable);
-        } else {
-            ViewUtil.setBackground(imageButton, background);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                invalidateOutline();
+            }
         }
-    }
 
-    /**
-     * Creates and returns a state list drawable, which can be used as the floating action button
-     * background and adapts the background color depending on the button's current state.
-     *
-     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
-     */
-    private Drawable createStateListBackgroundDrawable() {
-        StateListDrawable drawable = new StateListDrawable();
+        if (icon != null) {
+            int iconWidth = icon.getIntrinsicWidth();
+            int iconHeight = icon.getIntrinsicHeight();
+
+            if (iconWidth <= 0 || iconHeight <= 0) {
+                iconWidth = pixelSize;
+                iconHeight = pixelSize;
+            } else if (iconWidth > pixelSize || iconHeight > pixelSize) {
+                float scale = Math.min((float) pixelSize / iconWidth,
+                        (float) pixelSize / iconHeight);
+                iconWidth = Math.round(iconWidth * scale);
+                iconHeight = Math.round(iconHeight * scale);
+            }
 
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            drawable.addState(new int[]{android.R.attr.state_enabled, android.R.attr.state_pressed},
-                    createPressedBackgroundDrawable());
+            int iconLeft = (getWidth() - iconWidth) / 2;
+            int iconTop = (getHeight() - iconHeight) / 2;
+            icon.setBounds(iconLeft, iconTop, iconLeft + iconWidth, iconTop + iconHeight);
         }
-
-        drawable.addState(new int[]{android.R.attr.state_enabled, android.R.attr.state_activated},
-                createActivatedBackgroundDrawable());
-        drawable.addState(new int[]{android.R.attr.state_enabled},
-                createBackgroundDrawable(getColor()));
-        drawable.addState(new int[]{}, createDisabledBackgroundDrawable());
-        return drawable;
     }
 
     /**
-     * Creates and returns a drawable, which can be used as the floating action button's background,
-     * when it is activated.
-     *
-     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
+     * Adapts the floating action button's background, depending on its colors. Backgrounds are
+     * shared with other floating action buttons, which use the same colors.
      */
-    private Drawable createActivatedBackgroundDrawable() {
-        Drawable drawable = createBackgroundDrawable(getColor());
-        Drawable hoverDrawable = createBackgroundDrawable(getActivatedColor());
-        return new LayerDrawable(new Drawable[]{drawable, hoverDrawable});
-    }
+    private void adaptBackground() {
+        if (circleDrawable != null) {
+            circleDrawable.setCallback(null);
+        }
 
-    /**
-     * Creates and returns a drawable, which can be used as the floating action button's background,
-     * when it is pressed.
-     *
-     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
-     */
-    private Drawable createPressedBackgroundDrawable() {
-        Drawable drawable = createBackgroundDrawable(getColor());
-        Drawable hoverDrawable = createBackgroundDrawable(getPressedColor());
-        return new LayerDrawable(new Drawable[]{drawable, hoverDrawable});
+        circleDrawable = FloatingActionButtonBackground
+                .obtain(getColor(), getActivatedColor(), getPressedColor(), getDisabledColor());
+        circleDrawable.setCallback(this);
+        circleDrawable.setState(getDrawableState());
+        adaptDrawableBounds();
+        invalidate();
     }
 
     /**
-     * Creates and returns a drawable, which can be used as the floating action button's background,
-     * when it is disabled.
+     * Replaces the floating action button's icon. The bounds of the icon are not adapted.
      *
-     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
+     * @param icon
+     *         The icon, which should be set, as an instance of the class {@link Drawable} or null,
+     *         if no icon should be set
      */
-    private Drawable createDisabledBackgroundDrawable() {
-        Drawable drawable = createBackgroundDrawable(getColor());
-        Drawable hoverDrawable = createBackgroundDrawable(getDisabledColor());
-        return new LayerDrawable(new Drawable[]{drawable, hoverDrawable});
-    }
+    private void adaptIcon(@Nullable final Drawable icon) {
+        if (this.icon != null) {
+            this.icon.setCallback(null);
+        }
 
-    /**
-     * Creates and returns a drawable with a specific color, which can be used as the floating
-     * action button's background.
-     *
-     * @param color
-     *         The color of the background as an {@link Integer} value
-     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
-     */
-    private Drawable createBackgroundDrawable(@ColorInt final int color) {
-        OvalShape shape = new OvalShape();
-        ShapeDrawable drawable = new ShapeDrawable(shape);
-        drawable.getPaint().setColor(color);
-        return drawable;
+        this.icon = icon;
+
+        if (icon != null) {
+            icon.setCallback(this);
+
+            if (icon.isStateful()) {
+                icon.setState(getDrawableState());
+            }
+        }
     }
 
     /**
@@ -431,13 +756,7 @@ public class FloatingActionButton extends RelativeLayout {
      * @return The size of the floating action button in pixels as an {@link Integer} value
      */
     private int getPixelSize() {
-        if (getSize() == Size.NORMAL) {
-            return getResources().getDimensionPixelSize(R.dimen.floating_action_button_size_normal);
-        } else if (getSize() == Size.SMALL) {
-            return getResources().getDimensionPixelSize(R.dimen.floating_action_button_size_small);
-        } else {
-            return getResources().getDimensionPixelSize(R.dimen.floating_action_button_size_large);
-        }
+        return dimensions[getSize().ordinal()];
     }
 
     /**
@@ -447,9 +766,7 @@ public class FloatingActionButton extends RelativeLayout {
      * {@link Integer} value
      */
     private int getControlHighlightColor() {
-        TypedArray typedArray = getContext().getTheme()
-                .obtainStyledAttributes(new int[]{R.attr.colorControlHighlight});
-        return typedArray.getColor(0, 0);
+        return ThemeColorCache.getColor(getContext(), R.attr.colorControlHighlight, 0);
     }
 
     /**
@@ -459,9 +776,7 @@ public class FloatingActionButton extends RelativeLayout {
      * {@link Integer} value
      */
     private int getControlActivatedColor() {
-        TypedArray typedArray = getContext().getTheme()
-                .obtainStyledAttributes(new int[]{R.attr.colorControlActivated});
-        return typedArray.getColor(0, 0);
+        return ThemeColorCache.getColor(getContext(), R.attr.colorControlActivated, 0);
     }
 
     /**
@@ -605,6 +920,19 @@ public class FloatingActionButton extends RelativeLayout {
         initialize(attributeSet);
     }
 
+    /**
+     * Returns an editor, which allows to change multiple properties of the floating action button
+     * at once. Changing the colors or size by using the editor rebuilds the button's drawables
+     * only once, regardless of how many properties are changed, which is preferable to calling
+     * the individual setters, e.g. when restyling many buttons on a theme switch.
+     *
+     * @return The editor as an instance of the class {@link Editor}. The editor may not be null
+     */
+    @NonNull
+    public final Editor edit() {
+        return new Editor();
+    }
+
     /**
      * Returns the floating action button's size.
      *
@@ -626,8 +954,9 @@ public class FloatingActionButton extends RelativeLayout {
         Condition.INSTANCE.ensureNotNull(size, "The size may not be null");
         this.size = size;
         adaptShadow();
-        adaptImageButtonSize();
+        adaptDrawableBounds();
         requestLayout();
+        invalidate();
     }
 
     /**
@@ -637,7 +966,7 @@ public class FloatingActionButton extends RelativeLayout {
      * null, if no icon has been set
      */
     public final Drawable getIcon() {
-        return imageButton.getDrawable();
+        return icon;
     }
 
     /**
@@ -648,7 +977,9 @@ public class FloatingActionButton extends RelativeLayout {
      *         if no icon should be set
      */
     public final void setIcon(@Nullable final Drawable icon) {
-        imageButton.setImageDrawable(icon);
+        adaptIcon(icon);
+        adaptDrawableBounds();
+        invalidate();
     }
 
     /**
@@ -659,7 +990,7 @@ public class FloatingActionButton extends RelativeLayout {
      *         resource id must correspond to a valid drawable resource
      */
     public final void setIcon(@DrawableRes final int resourceId) {
-        imageButton.setImageResource(resourceId);
+        setIcon(ContextCompat.getDrawable(getContext(), resourceId));
     }
 
     /**
@@ -679,7 +1010,7 @@ public class FloatingActionButton extends RelativeLayout {
      */
     public final void setColor(@ColorInt final int color) {
         this.color = color;
-        adaptImageButtonBackground();
+        adaptBackground();
     }
 
     /**
@@ -702,7 +1033,7 @@ public class FloatingActionButton extends RelativeLayout {
      */
     public final void setActivatedColor(@ColorInt final int color) {
         this.activatedColor = color;
-        adaptImageButtonBackground();
+        adaptBackground();
     }
 
     /**
@@ -724,7 +1055,7 @@ public class FloatingActionButton extends RelativeLayout {
      */
     public final void setPressedColor(@ColorInt final int color) {
         this.pressedColor = color;
-        adaptImageButtonBackground();
+        adaptBackground();
     }
 
     /**
@@ -746,7 +1077,7 @@ public class FloatingActionButton extends RelativeLayout {
      */
     public final void setDisabledColor(@ColorInt final int color) {
         this.disabledColor = color;
-        adaptImageButtonBackground();
+        adaptBackground();
     }
 
     /**
@@ -797,28 +1128,113 @@ public class FloatingActionButton extends RelativeLayout {
     }
 
     @Override
-    public final void setOnClickListener(final OnClickListener listener) {
-        imageButton.setOnClickListener(listener);
+    public final CharSequence getAccessibilityClassName() {
+        return Button.class.getName();
+    }
+
+    @Override
+    public final void onInitializeAccessibilityEvent(final AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setClassName(Button.class.getName());
+    }
+
+    @Override
+    public final void onInitializeAccessibilityNodeInfo(final AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(Button.class.getName());
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public final boolean onTouchEvent(final MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN &&
+                !isWithinCircle(event.getX(), event.getY())) {
+            return false;
+        }
+
+        return super.onTouchEvent(event);
+    }
+
+    @Override
+    protected final void drawableStateChanged() {
+        super.drawableStateChanged();
+        int[] state = getDrawableState();
+        boolean changed = false;
+
+        if (circleDrawable != null && circleDrawable.isStateful()) {
+            changed = circleDrawable.setState(state);
+        }
+
+        if (icon != null && icon.isStateful()) {
+            changed |= icon.setState(state);
+        }
+
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    @Override
+    public final void drawableHotspotChanged(final float x, final float y) {
+        super.drawableHotspotChanged(x, y);
+
+        if (circleDrawable != null) {
+            circleDrawable.setHotspot(x, y);
+        }
+    }
+
+    @Override
+    public final void jumpDrawablesToCurrentState() {
+        super.jumpDrawablesToCurrentState();
+
+        if (circleDrawable != null) {
+            circleDrawable.jumpToCurrentState();
+        }
+
+        if (icon != null) {
+            icon.jumpToCurrentState();
+        }
+    }
+
+    @Override
+    protected final boolean verifyDrawable(@NonNull final Drawable drawable) {
+        return drawable == circleDrawable || drawable == icon || super.verifyDrawable(drawable);
     }
 
     @Override
-    public final void setOnLongClickListener(final OnLongClickListener listener) {
-        imageButton.setOnLongClickListener(listener);
+    protected final void onSizeChanged(final int width, final int height, final int oldWidth,
+                                       final int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        adaptDrawableBounds();
     }
 
     @Override
-    public final void setEnabled(final boolean enabled) {
-        super.setEnabled(enabled);
-        imageButton.setEnabled(enabled);
+    protected final void onDraw(final Canvas canvas) {
+        super.onDraw(canvas);
+        circleDrawable.draw(canvas);
+
+        if (icon != null) {
+            icon.draw(canvas);
+        }
+    }
+
+    @Override
+    protected final void onConfigurationChanged(final Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        int[] previousDimensions = dimensions;
+        obtainDimensions();
+
+        if (!Arrays.equals(dimensions, previousDimensions)) {
+            adaptDrawableBounds();
+            requestLayout();
+        }
     }
 
     @Override
     protected final void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
-        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-        int shadowSize =
-                getResources().getDimensionPixelSize(R.dimen.floating_action_button_shadow_size);
-        int pixelSize = getPixelSize() + shadowSize;
+        int pixelSize = getPixelSize() + dimensions[SHADOW_SIZE_INDEX];
         setMeasuredDimension(pixelSize, pixelSize);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view;
+
+import android.annotation.SuppressLint;
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.LayerDrawable;
+import android.graphics.drawable.RippleDrawable;
+import android.graphics.drawable.ShapeDrawable;
+import android.graphics.drawable.StateListDrawable;
+import android.graphics.drawable.shapes.OvalShape;
+import android.os.Build;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Creates the backgrounds of floating action buttons, which adapt their color depending on the
+ * button's current state. The constant states of the backgrounds are cached, which means that all
+ * floating action buttons, which use the same colors, share a single set of drawable states, even
+ * if they are created independently.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class FloatingActionButtonBackground {
+
+    /**
+     * The key, which is used to cache backgrounds.
+     */
+    private static final class Key {
+
+        /**
+         * The color of the floating action button.
+         */
+        private final int color;
+
+        /**
+         * The color, which is used as an overlay, when the floating action button is activated.
+         */
+        private final int activatedColor;
+
+        /**
+         * The color, which is used as an overlay, when the floating action button is pressed.
+         */
+        private final int pressedColor;
+
+        /**
+         * The color, which is used as an overlay, when the floating action button is disabled.
+         */
+        private final int disabledColor;
+
+        /**
+         * Creates a new key.
+         *
+         * @param color
+         *         The color of the floating action button as an {@link Integer} value
+         * @param activatedColor
+         *         The color, which is used as an overlay, when the floating action button is
+         *         activated, as an {@link Integer} value
+         * @param pressedColor
+         *         The color, which is used as an overlay, when the floating action button is
+         *         pressed, as an {@link Integer} value
+         * @param disabledColor
+         *         The color, which is used as an overlay, when the floating action button is
+         *         disabled, as an {@link Integer} value
+         */
+        Key(final int color, final int activatedColor, final int pressedColor,
+            final int disabledColor) {
+            this.color = color;
+            this.activatedColor = activatedColor;
+            this.pressedColor = pressedColor;
+            this.disabledColor = disabledColor;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return color == other.color && activatedColor == other.activatedColor &&
+                    pressedColor == other.pressedColor && disabledColor == other.disabledColor;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + color;
+            result = prime * result + activatedColor;
+            result = prime * result + pressedColor;
+            result = prime * result + disabledColor;
+            return result;
+        }
+
+    }
+
+    /**
+     * The maximum number of backgrounds, which are cached.
+     */
+    private static final int MAX_CACHE_SIZE = 32;
+
+    /**
+     * The cache, which contains the constant states of the backgrounds, which have already been
+     * created.
+     */
+    private static LruCache<Key, Drawable.ConstantState> cache;
+
+    /**
+     * Returns the cache, which contains the constant states of the backgrounds, which have
+     * already been created. The cache is created, if necessary.
+     *
+     * @return The cache as an instance of the class {@link LruCache}. The cache may not be null
+     */
+    @NonNull
+    private static LruCache<Key, Drawable.ConstantState> getCache() {
+        if (cache == null) {
+            cache = new LruCache<>(MAX_CACHE_SIZE);
+        }
+
+        return cache;
+    }
+
+    /**
+     * Creates and returns a background, which adapts its color depending on the floating action
+     * button's current state. On devices with API level 21 or greater, the background shows a
+     * ripple effect, when pressed.
+     *
+     * @param key
+     *         The key, which specifies the colors of the background, as an instance of the class
+     *         {@link Key}. The key may not be null
+     * @return The background, which has been created, as an instance of the class {@link
+     * Drawable}
+     */
+    @SuppressLint("NewApi")
+    private static Drawable createBackground(@NonNull final Key key) {
+        Drawable background = createStateListBackgroundDrawable(key);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return new RippleDrawable(
+                    new ColorStateList(new int[][]{{}}, new int[]{key.pressedColor}), background,
+                    null);
+        }
+
+        return background;
+    }
+
+    /**
+     * Creates and returns a state list drawable, which can be used as the floating action button
+     * background and adapts the background color depending on the button's current state.
+     *
+     * @param key
+     *         The key, which specifies the colors of the background, as an instance of the class
+     *         {@link Key}. The key may not be null
+     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
+     */
+    private static Drawable createStateListBackgroundDrawable(@NonNull final Key key) {
+        StateListDrawable drawable = new StateListDrawable();
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            drawable.addState(new int[]{android.R.attr.state_enabled, android.R.attr.state_pressed},
+                    createOverlayBackgroundDrawable(key.color, key.pressedColor));
+        }
+
+        drawable.addState(new int[]{android.R.attr.state_enabled, android.R.attr.state_activated},
+                createOverlayBackgroundDrawable(key.color, key.activatedColor));
+        drawable.addState(new int[]{android.R.attr.state_enabled},
+                createBackgroundDrawable(key.color));
+        drawable.addState(new int[]{},
+                createOverlayBackgroundDrawable(key.color, key.disabledColor));
+        return drawable;
+    }
+
+    /**
+     * Creates and returns a drawable, which can be used as the floating action button's
+     * background, when it is activated, pressed or disabled.
+     *
+     * @param color
+     *         The color of the background as an {@link Integer} value
+     * @param overlayColor
+     *         The color of the overlay as an {@link Integer} value
+     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
+     */
+    private static Drawable createOverlayBackgroundDrawable(@ColorInt final int color,
+                                                            @ColorInt final int overlayColor) {
+        Drawable drawable = createBackgroundDrawable(color);
+        Drawable hoverDrawable = createBackgroundDrawable(overlayColor);
+        return new LayerDrawable(new Drawable[]{drawable, hoverDrawable});
+    }
+
+    /**
+     * Creates and returns a drawable with a specific color, which can be used as the floating
+     * action button's background.
+     *
+     * @param color
+     *         The color of the background as an {@link Integer} value
+     * @return The drawable, which has been created, as an instance of the class {@link Drawable}
+     */
+    private static Drawable createBackgroundDrawable(@ColorInt final int color) {
+        OvalShape shape = new OvalShape();
+        ShapeDrawable drawable = new ShapeDrawable(shape);
+        drawable.getPaint().setColor(color);
+        return drawable;
+    }
+
+    /**
+     * Creates a new class, which creates the backgrounds of floating action buttons.
+     */
+    private FloatingActionButtonBackground() {
+
+    }
+
+    /**
+     * Returns a background, which adapts its color depending on the floating action button's
+     * current state. If a background with the same colors has already been created, a new
+     * drawable, which shares the cached constant state, is returned.
+     *
+     * @param color
+     *         The color of the floating action button as an {@link Integer} value
+     * @param activatedColor
+     *         The color, which is used as an overlay, when the floating action button is
+     *         activated, as an {@link Integer} value
+     * @param pressedColor
+     *         The color, which is used as an overlay, when the floating action button is pressed,
+     *         as an {@link Integer} value
+     * @param disabledColor
+     *         The color, which is used as an overlay, when the floating action button is disabled,
+     *         as an {@link Integer} value
+     * @return The background as an instance of the class {@link Drawable}. The background may not
+     * be null
+     */
+    @NonNull
+    static Drawable obtain(@ColorInt final int color, @ColorInt final int activatedColor,
+                           @ColorInt final int pressedColor, @ColorInt final int disabledColor) {
+        Key key = new Key(color, activatedColor, pressedColor, disabledColor);
+        LruCache<Key, Drawable.ConstantState> cache = getCache();
+        Drawable.ConstantState constantState = cache.get(key);
+
+        if (constantState != null) {
+            return constantState.newDrawable();
+        }
+
+        Drawable background = createBackground(key);
+        constantState = background.getConstantState();
+
+        if (constantState != null) {
+            cache.put(key, constantState);
+        }
+
+        return background;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.SparseIntArray;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import androidx.annotation.AttrRes;
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * A cache, which contains the colors of theme attributes, which have already been resolved. Colors
+ * are cached per theme, which is only weakly referenced, and discarded, when the configuration of
+ * the theme's resources changes. This prevents the same attributes from being resolved over and
+ * over again, when many views are created.
+ * <p>
+ * As the cache is keyed by the theme instance, themes must not be modified, e.g. by using the
+ * method {@link Resources.Theme#applyStyle(int, boolean)}, after colors have been obtained from
+ * them.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class ThemeColorCache {
+
+    /**
+     * The colors, which have been resolved from a single theme.
+     */
+    private static final class Entry {
+
+        /**
+         * The configuration, the colors have been resolved with.
+         */
+        private final Configuration configuration;
+
+        /**
+         * The colors, which have been resolved, by attribute.
+         */
+        private final SparseIntArray colors;
+
+        /**
+         * Creates a new entry, which does not contain any colors.
+         *
+         * @param configuration
+         *         The configuration, the colors are resolved with, as an instance of the class
+         *         {@link Configuration}. The configuration is copied
+         */
+        Entry(@NonNull final Configuration configuration) {
+            this.configuration = new Configuration(configuration);
+            this.colors = new SparseIntArray();
+        }
+
+    }
+
+    /**
+     * The entries of the cache, by theme.
+     */
+    private static final Map<Resources.Theme, Entry> CACHE = new WeakHashMap<>();
+
+    /**
+     * Returns the color of a specific theme attribute. If the color has not been resolved yet, it
+     * is obtained from the context's theme and added to the cache.
+     *
+     * @param context
+     *         The context, whose theme should be used, as an instance of the class {@link
+     *         Context}. The context may not be null
+     * @param attribute
+     *         The resource id of the theme attribute as an {@link Integer} value
+     * @param required
+     *         True, if an exception should be thrown, if the attribute is not defined by the
+     *         theme, false, if the default color should be returned
+     * @param defaultColor
+     *         The color, which should be returned, if the attribute is not defined by the theme,
+     *         as an {@link Integer} value
+     * @return The color of the given theme attribute as an {@link Integer} value
+     */
+    private static synchronized int getColor(@NonNull final Context context,
+                                             @AttrRes final int attribute,
+                                             final boolean required,
+                                             @ColorInt final int defaultColor) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        Entry entry = CACHE.get(theme);
+
+        if (entry == null || entry.configuration.diff(configuration) != 0) {
+            entry = new Entry(configuration);
+            CACHE.put(theme, entry);
+        }
+
+        int index = entry.colors.indexOfKey(attribute);
+
+        if (index >= 0) {
+            return entry.colors.valueAt(index);
+        }
+
+        TypedArray typedArray = theme.obtainStyledAttributes(new int[]{attribute});
+        int color;
+
+        try {
+            if (required && !typedArray.hasValue(0)) {
+                throw new Resources.NotFoundException(
+                        "Theme attribute 0x" + Integer.toHexString(attribute) + " is not defined");
+            }
+
+            color = typedArray.getColor(0, defaultColor);
+        } finally {
+            typedArray.recycle();
+        }
+
+        entry.colors.put(attribute, color);
+        return color;
+    }
+
+    /**
+     * Creates a new cache, which contains the colors of theme attributes.
+     */
+    private ThemeColorCache() {
+
+    }
+
+    /**
+     * Returns the color of a specific theme attribute.
+     *
+     * @param context
+     *         The context, whose theme should be used, as an instance of the class {@link
+     *         Context}. The context may not be null
+     * @param attribute
+     *         The resource id of the theme attribute as an {@link Integer} value
+     * @return The color of the given theme attribute as an {@link Integer} value
+     * @throws Resources.NotFoundException
+     *         The exception, which is thrown, if the attribute is not defined by the theme
+     */
+    static int getColor(@NonNull final Context context, @AttrRes final int attribute) {
+        return getColor(context, attribute, true, 0);
+    }
+
+    /**
+     * Returns the color of a specific theme attribute or a default color, if the attribute is not
+     * defined by the theme.
+     *
+     * @param context
+     *         The context, whose theme should be used, as an instance of the class {@link
+     *         Context}. The context may not be null
+     * @param attribute
+     *         The resource id of the theme attribute as an {@link Integer} value
+     * @param defaultColor
+     *         The color, which should be returned, if the attribute is not defined by the theme,
+     *         as an {@link Integer} value
+     * @return The color of the given theme attribute or the default color as an {@link Integer}
+     * value
+     */
+    static int getColor(@NonNull final Context context, @AttrRes final int attribute,
+                        @ColorInt final int defaultColor) {
+        return getColor(context, attribute, false, defaultColor);
+    }
+
+}
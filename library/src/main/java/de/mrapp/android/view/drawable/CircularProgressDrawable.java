@@ -13,29 +13,79 @@
  */
 package de.mrapp.android.view.drawable;
 
-import android.animation.Animator;
-import android.animation.Animator.AnimatorListener;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.ColorFilter;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.SweepGradient;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
-import android.util.Property;
-import android.view.animation.DecelerateInterpolator;
-import android.view.animation.LinearInterpolator;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import de.mrapp.android.view.CircularProgressBar;
+import de.mrapp.android.view.R;
 import de.mrapp.util.Condition;
 
 /**
  * An animated drawable, which is used by the view {@link CircularProgressBar}.
+ * <p>
+ * Neither updating the animation nor drawing the drawable allocates any objects. The arc is
+ * computed by a {@link SpinnerGeometry} from the frame time, which is provided by the {@link
+ * FrameClock}, which is shared by all instances.
+ * <p>
+ * Besides the indeterminate mode, the drawable provides a determinate mode, which visualizes a
+ * specific progress. The progress can be updated from any thread by using the method {@link
+ * #setProgress(float)}. Updates are coalesced, which means that the drawable is invalidated at most
+ * once per frame.
+ * <p>
+ * The frame rate of the indeterminate animation can be limited per drawable by using the method
+ * {@link #setMaxFrameRate(int)}, or globally by using the method {@link
+ * #setDefaultMaxFrameRate(int)}. Additionally, an adaptive mode can be enabled, which lowers the
+ * frame rate, when janky frames are detected, or when the device is in power save mode.
+ * <p>
+ * While the drawable is not visible (see {@link #setVisible(boolean, boolean)}) or fully
+ * transparent, a running animation is paused automatically.
+ * <p>
+ * The color and thickness can be changed, or a tint can be applied, while the animation is running
+ * without re-creating the drawable.
+ * <p>
+ * Drawables, which show the progress of the same logical task, e.g. within the rows of a list, can
+ * share the phase of their animation by using the method {@link #setPhaseKey(Object)}. This
+ * prevents the animation from restarting, when a view is recycled.
+ * <p>
+ * Instead of a single color, a sequence of colors can be set by using the method {@link
+ * #setColors(int[])}. The color changes on each cycle of the indeterminate animation. Colors are
+ * looked up from a precomputed table, which means that drawing the drawable still does not
+ * allocate any objects.
+ * <p>
+ * The configuration of the drawable, i.e. its colors, thickness, tint and frame rate, is stored in
+ * a {@link ConstantState}, which is shared by all drawables, which have been created from the same
+ * resource or by using the method {@link ConstantState#newDrawable()}. The method {@link
+ * #mutate()} must be called before changing the configuration of such a drawable. On devices with
+ * API level 24 or greater, the drawable can be declared in XML by using the tag
+ * <code>&lt;drawable class="de.mrapp.android.view.drawable.CircularProgressDrawable"&gt;</code>
+ * together with the attributes of the styleable <code>CircularProgressDrawable</code>.
  *
  * @author Michael Rapp
  * @since 1.0.0
@@ -43,34 +93,186 @@ import de.mrapp.util.Condition;
 public class CircularProgressDrawable extends Drawable implements Animatable {
 
     /**
-     * The duration of the angle animation in milliseconds.
+     * The constant state of a {@link CircularProgressDrawable}, which contains the configuration,
+     * which is shared by all drawables, which have been created from the same resource.
+     */
+    private static final class CircularProgressState extends ConstantState {
+
+        /**
+         * The color of the progress drawable.
+         */
+        private int color;
+
+        /**
+         * The thickness of the progress drawable in pixels.
+         */
+        private int thickness;
+
+        /**
+         * The color state list, which is used to tint the progress drawable, or null, if no tint is
+         * applied.
+         */
+        private ColorStateList tint;
+
+        /**
+         * The sequence of colors, which is cycled by the indeterminate animation, or null, if only
+         * a single color is used.
+         */
+        private ColorSequence colorSequence;
+
+        /**
+         * The number of precomputed colors per transition between two colors of the sequence.
+         */
+        private int colorTableResolution;
+
+        /**
+         * The maximum frame rate of the animation.
+         */
+        private int maxFrameRate;
+
+        /**
+         * True, if the adaptive frame rate is enabled, false otherwise.
+         */
+        private boolean adaptiveFrameRate;
+
+        /**
+         * True, if the arc is drawn with a gradient, which fades towards its tail, false
+         * otherwise.
+         */
+        private boolean gradientEnabled;
+
+        /**
+         * True, if the atlas mode is enabled, false otherwise.
+         */
+        private boolean atlasEnabled;
+
+        /**
+         * The number of frames, which are pre-rendered, if the atlas mode is enabled.
+         */
+        private int atlasFrameCount;
+
+        /**
+         * A bit mask, which specifies the configuration changes, which affect the state.
+         */
+        private int changingConfigurations;
+
+        /**
+         * Creates a new constant state.
+         *
+         * @param color
+         *         The color of the progress drawable as an {@link Integer} value
+         * @param thickness
+         *         The thickness of the progress drawable in pixels as an {@link Integer} value. The
+         *         thickness must be at least 1
+         */
+        CircularProgressState(@ColorInt final int color, final int thickness) {
+            Condition.INSTANCE.ensureAtLeast(thickness, 1, "The thickness must be at least 1");
+            this.color = color;
+            this.thickness = thickness;
+            this.tint = null;
+            this.colorSequence = null;
+            this.colorTableResolution = DEFAULT_COLOR_TABLE_RESOLUTION;
+            this.maxFrameRate = FRAME_RATE_DEFAULT;
+            this.adaptiveFrameRate = false;
+            this.gradientEnabled = false;
+            this.atlasEnabled = false;
+            this.atlasFrameCount = DEFAULT_ATLAS_FRAME_COUNT;
+            this.changingConfigurations = 0;
+        }
+
+        /**
+         * Creates a new constant state, which is a copy of another one.
+         *
+         * @param state
+         *         The state, which should be copied, as an instance of the class {@link
+         *         CircularProgressState}. The state may not be null
+         */
+        CircularProgressState(@NonNull final CircularProgressState state) {
+            this.color = state.color;
+            this.thickness = state.thickness;
+            this.tint = state.tint;
+            this.colorSequence = state.colorSequence;
+            this.colorTableResolution = state.colorTableResolution;
+            this.maxFrameRate = state.maxFrameRate;
+            this.adaptiveFrameRate = state.adaptiveFrameRate;
+            this.gradientEnabled = state.gradientEnabled;
+            this.atlasEnabled = state.atlasEnabled;
+            this.atlasFrameCount = state.atlasFrameCount;
+            this.changingConfigurations = state.changingConfigurations;
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new CircularProgressDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return changingConfigurations;
+        }
+
+    }
+
+    /**
+     * The default number of frames, which are pre-rendered, if the atlas mode is enabled.
      */
-    private static final long ANGLE_ANIMATION_DURATION = 2000L;
+    public static final int DEFAULT_ATLAS_FRAME_COUNT = 36;
 
     /**
-     * The duration of the sweep animation in milliseconds.
+     * The default number of colors, which are precomputed per transition between two colors, if a
+     * sequence of colors is used.
      */
-    private static final long SWEEP_ANIMATION_DURATION = 600L;
+    public static final int DEFAULT_COLOR_TABLE_RESOLUTION = 32;
 
     /**
-     * The minimum angle of the sweep animation.
+     * The frame rate, which causes the animation to run at the refresh rate of the display.
      */
-    private static final int MIN_SWEEP_ANGLE = 30;
+    public static final int FRAME_RATE_UNLIMITED = FramePacer.UNLIMITED_FRAME_RATE;
 
     /**
-     * The number of degrees in a circle.
+     * The frame rate, which causes a drawable to use the default maximum frame rate, which can be
+     * set by using the method {@link #setDefaultMaxFrameRate(int)}.
      */
-    private static final int MAX_DEGREES = 360;
+    public static final int FRAME_RATE_DEFAULT = -1;
 
     /**
-     * The color of the progress drawable.
+     * The angle, the arc starts at, if the determinate mode is used.
      */
-    private final int color;
+    private static final float DETERMINATE_START_ANGLE = -90;
 
     /**
-     * The thickness of the progress drawable.
+     * The handler, which is used to post progress updates to the UI thread.
      */
-    private final int thickness;
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * The maximum frame rate, which is used by all drawables, whose maximum frame rate is {@link
+     * #FRAME_RATE_DEFAULT}.
+     */
+    private static int defaultMaxFrameRate = FRAME_RATE_UNLIMITED;
+
+    /**
+     * The geometry, which is drawn by all drawables, whose animation is not running. It must not
+     * be modified.
+     */
+    private static final SpinnerGeometry INITIAL_GEOMETRY = new SpinnerGeometry();
+
+    /**
+     * The constant state, which contains the configuration of the drawable.
+     */
+    private CircularProgressState state;
+
+    /**
+     * True, if the drawable has been mutated, false otherwise.
+     */
+    private boolean mutated;
+
+    /**
+     * The color, which is currently used for drawing, depending on the color, the tint and the
+     * drawable's state.
+     */
+    private int currentColor;
 
     /**
      * The paint, which is used for drawing.
@@ -83,35 +285,112 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
     private RectF bounds;
 
     /**
-     * The sweep animator.
+     * The geometry, which is used to compute the bounds of the arc.
+     */
+    private RingGeometry ringGeometry;
+
+    /**
+     * The bounds of the stroked ring, which are invalidated on each frame.
+     */
+    private Rect dirtyBounds;
+
+    /**
+     * The shader, which is used to draw the arc with a gradient, or null, if the gradient mode is
+     * disabled.
+     */
+    private SweepGradient gradientShader;
+
+    /**
+     * The paint, which is used for drawing pre-rendered frames, if the atlas mode is enabled.
+     */
+    private Paint atlasPaint;
+
+    /**
+     * The atlas, which contains the pre-rendered frames, or null, if the atlas mode is disabled, if
+     * the atlas would exceed the maximum size of the cache or if it has been evicted from the
+     * cache.
+     */
+    private SpinnerAtlas atlas;
+
+    /**
+     * The bounds of the frame, which is currently drawn, within the atlas.
+     */
+    private Rect atlasSource;
+
+    /**
+     * The bounds, pre-rendered frames are drawn to.
+     */
+    private Rect atlasDestination;
+
+    /**
+     * The geometry, which is used to compute the arc, which is drawn, while the animation is
+     * running, or null, if the animation has not been started yet.
+     */
+    private SpinnerGeometry geometry;
+
+    /**
+     * The time in milliseconds, when the animation has been started.
+     */
+    private long startTime;
+
+    /**
+     * True, if the animation is currently running, false otherwise.
+     */
+    private boolean running;
+
+    /**
+     * The pacer, which is used to decide, which frames should be drawn, or null, if the animation
+     * has not been started yet.
+     */
+    private FramePacer framePacer;
+
+    /**
+     * True, if the device is in power save mode, false otherwise.
+     */
+    private boolean powerSaveMode;
+
+    /**
+     * The key, which is used to share the phase of the animation with other drawables, or null, if
+     * the phase is not shared.
+     */
+    private Object phaseKey;
+
+    /**
+     * The alpha value of the drawable.
      */
-    private ObjectAnimator sweepAnimator;
+    private int alpha;
 
     /**
-     * The angle animator.
+     * True, if the indeterminate mode is used, false otherwise.
      */
-    private ObjectAnimator angleAnimator;
+    private boolean indeterminate;
 
     /**
-     * The current angle of the sweep animation.
+     * The progress, which has most recently been set, encoded by using the method {@link
+     * Float#floatToIntBits(float)}. It may be written from any thread.
      */
-    private float currentSweepAngle;
+    private final AtomicInteger progressBits;
 
     /**
-     * The current angle of the angle animation.
+     * True, if a progress update has been posted, but not yet been applied, false otherwise.
      */
-    private float currentGlobalAngle;
+    private final AtomicBoolean progressUpdatePending;
 
     /**
-     * The current offset of the angle animation.
+     * The runnable, which is posted to the UI thread in order to apply progress updates.
      */
-    private float currentGlobalAngleOffset;
+    private final Runnable progressUpdateRunnable;
 
     /**
-     * True, if the progress bar is currently animated to be appearing, false. This value will
-     * toggle each time the animation is repeated.
+     * The progress, which is currently shown, if the determinate mode is used.
      */
-    private boolean appearing;
+    private float currentProgress;
+
+    /**
+     * The recorder, which is used to record frame timing statistics, or null, if the
+     * instrumentation is disabled.
+     */
+    private FrameTimingRecorder frameTimingRecorder;
 
     /**
      * Initializes the paint, which is used for drawing.
@@ -121,123 +400,322 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         paint.setAntiAlias(true);
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(getThickness());
-        paint.setColor(getColor());
+        atlasPaint = new Paint();
+        atlasPaint.setAntiAlias(true);
+        atlasPaint.setFilterBitmap(true);
+        adaptPaintColor();
     }
 
     /**
-     * Initializes the animators.
+     * Adapts the color of the paints, which are used for drawing, depending on the color, the
+     * tint, the drawable's state and its alpha value.
+     *
+     * @return True, if the color, which is used for drawing, has been changed, false otherwise
      */
-    private void initializeAnimators() {
-        initializeAngleAnimator();
-        initializeSweepAnimator();
+    private boolean adaptPaintColor() {
+        int previousColor = currentColor;
+        currentColor = state.tint != null ?
+                state.tint.getColorForState(getState(), state.color) : state.color;
+        applyPaintColor(currentColor);
+
+        if (previousColor != currentColor) {
+            adaptGradient();
+            return true;
+        }
+
+        return false;
     }
 
     /**
-     * Initializes the angle animator.
+     * Applies a specific color to the paints, which are used for drawing, taking the drawable's
+     * alpha value into account.
+     *
+     * @param color
+     *         The color, which should be applied, as an {@link Integer} value
      */
-    private void initializeAngleAnimator() {
-        angleAnimator = ObjectAnimator.ofFloat(this, createAngleProperty(), MAX_DEGREES);
-        angleAnimator.setInterpolator(new LinearInterpolator());
-        angleAnimator.setDuration(ANGLE_ANIMATION_DURATION);
-        angleAnimator.setRepeatMode(ValueAnimator.RESTART);
-        angleAnimator.setRepeatCount(ValueAnimator.INFINITE);
+    private void applyPaintColor(@ColorInt final int color) {
+        int modulatedAlpha = Color.alpha(color) * alpha / 255;
+        paint.setColor(color);
+        paint.setAlpha(modulatedAlpha);
+        atlasPaint.setColor(color);
+        atlasPaint.setAlpha(modulatedAlpha);
     }
 
     /**
-     * Creates and returns a property, which allows to animate the global angle of the progress
-     * drawable.
+     * Adapts the bounds of the arc, depending on the bounds of the drawable and the thickness.
      *
-     * @return The property, which has been created, as an instance of the class {@link Property}
+     * @param bounds
+     *         The bounds of the drawable as an instance of the class {@link Rect}. The bounds may
+     *         not be null
      */
-    private Property<CircularProgressDrawable, Float> createAngleProperty() {
-        return new Property<CircularProgressDrawable, Float>(Float.class, "angle") {
+    private void adaptArcBounds(@NonNull final Rect bounds) {
+        int width = bounds.right - bounds.left;
+        int height = bounds.bottom - bounds.top;
+        ringGeometry.update(bounds.left, bounds.top, bounds.right, bounds.bottom,
+                state.thickness);
+        this.bounds.set(ringGeometry.getLeft(), ringGeometry.getTop(), ringGeometry.getRight(),
+                ringGeometry.getBottom());
+        int size = Math.min(width, height);
+        int left = bounds.left + (width - size) / 2;
+        int top = bounds.top + (height - size) / 2;
+        atlasDestination.set(left, top, left + size, top + size);
+        adaptDirtyBounds();
+        adaptGradient();
+        adaptAtlas();
+    }
 
-            @Override
-            public Float get(final CircularProgressDrawable object) {
-                return currentGlobalAngle;
-            }
+    /**
+     * Adapts the shader, which is used to draw the arc with a gradient, depending on whether the
+     * gradient mode is enabled, as well as on the current bounds and color. The gradient fades
+     * from the color at 360 degrees to transparency at 0 degrees. Instead of modifying the shader
+     * on each frame, the canvas is rotated when drawing.
+     */
+    private void adaptGradient() {
+        if (state.gradientEnabled && !bounds.isEmpty()) {
+            int opaqueColor = currentColor | 0xff000000;
+            gradientShader = new SweepGradient(bounds.centerX(), bounds.centerY(),
+                    opaqueColor & 0x00ffffff, opaqueColor);
+        } else {
+            gradientShader = null;
+        }
 
-            @Override
-            public void set(final CircularProgressDrawable object, final Float value) {
-                currentGlobalAngle = value;
-                invalidateSelf();
-            }
+        paint.setShader(gradientShader);
+    }
 
-        };
+    /**
+     * Draws the arc with a gradient. The canvas is rotated around the center of the arc, so that
+     * the opaque end of the gradient, which is located at 360 degrees, corresponds to the head of
+     * the arc.
+     *
+     * @param canvas
+     *         The canvas, the arc should be drawn to, as an instance of the class {@link Canvas}.
+     *         The canvas may not be null
+     * @param startAngle
+     *         The angle, the arc starts at, in degrees as a {@link Float} value
+     * @param sweepAngle
+     *         The angle, which is covered by the arc, in degrees as a {@link Float} value
+     */
+    private void drawGradientArc(@NonNull final Canvas canvas, final float startAngle,
+                                 final float sweepAngle) {
+        float rotation = startAngle + sweepAngle - 360;
+        int saveCount = canvas.save();
+        canvas.rotate(rotation, bounds.centerX(), bounds.centerY());
+        canvas.drawArc(bounds, startAngle - rotation, sweepAngle, false, paint);
+        canvas.restoreToCount(saveCount);
     }
 
     /**
-     * Initializes the sweep animator.
+     * Adapts the atlas, which contains the pre-rendered frames, depending on whether the atlas
+     * mode is enabled, as well as on the current bounds and thickness.
      */
-    private void initializeSweepAnimator() {
-        sweepAnimator = ObjectAnimator
-                .ofFloat(this, createSweepProperty(), MAX_DEGREES - MIN_SWEEP_ANGLE * 2);
-        sweepAnimator.setInterpolator(new DecelerateInterpolator());
-        sweepAnimator.setDuration(SWEEP_ANIMATION_DURATION);
-        sweepAnimator.setRepeatMode(ValueAnimator.RESTART);
-        sweepAnimator.setRepeatCount(ValueAnimator.INFINITE);
-        sweepAnimator.addListener(createSweepAnimatorListener());
+    private void adaptAtlas() {
+        int size = atlasDestination.width();
+
+        if (state.atlasEnabled && !state.gradientEnabled && size > 0) {
+            atlas = SpinnerAtlas.obtain(getThickness(), size, state.atlasFrameCount);
+        } else {
+            atlas = null;
+        }
     }
 
     /**
-     * Creates and returns a property, which allows to animate the sweep angle of the progress
-     * drawable.
-     *
-     * @return The property, which has been created, as an instance of the class {@link Property}
+     * Adapts the bounds of the stroked ring, which are invalidated on each frame, depending on the
+     * current bounds of the arc and the thickness.
      */
-    private Property<CircularProgressDrawable, Float> createSweepProperty() {
-        return new Property<CircularProgressDrawable, Float>(Float.class, "arc") {
+    private void adaptDirtyBounds() {
+        float inset = getThickness() / 2.0f;
+        dirtyBounds.left = (int) Math.floor(bounds.left - inset);
+        dirtyBounds.top = (int) Math.floor(bounds.top - inset);
+        dirtyBounds.right = (int) Math.ceil(bounds.right + inset);
+        dirtyBounds.bottom = (int) Math.ceil(bounds.bottom + inset);
+    }
 
-            @Override
-            public Float get(final CircularProgressDrawable object) {
-                return currentSweepAngle;
-            }
+    /**
+     * Creates and returns a runnable, which requests the {@link FrameClock} to apply the most
+     * recent progress update on the next frame. It must be run on the UI thread.
+     *
+     * @return The runnable, which has been created, as an instance of the type {@link Runnable}
+     */
+    private Runnable createProgressUpdateRunnable() {
+        return new Runnable() {
 
             @Override
-            public void set(final CircularProgressDrawable object, final Float value) {
-                currentSweepAngle = value;
-                invalidateSelf();
+            public void run() {
+                if (!indeterminate) {
+                    FrameClock.getInstance().add(CircularProgressDrawable.this);
+                } else {
+                    progressUpdatePending.set(false);
+                }
             }
 
         };
     }
 
     /**
-     * Creates and returns a listener, which allows to restart the progress drawable's animation,
-     * when it has been finished.
+     * Applies the most recent progress update.
+     */
+    private void applyProgress() {
+        progressUpdatePending.set(false);
+        currentProgress = Float.intBitsToFloat(progressBits.get());
+    }
+
+    /**
+     * Restarts the indeterminate animation. If a phase key is set, the animation continues at the
+     * phase, which corresponds to the key, instead of starting at the beginning.
+     */
+    private void restartAnimation() {
+        long frameTime = FrameClock.getInstance().getFrameTime();
+        startTime = phaseKey != null ?
+                PhaseRegistry.getInstance().obtainStartTime(phaseKey, frameTime) : frameTime;
+        geometry.update(Math.max(0, frameTime - startTime));
+    }
+
+    /**
+     * Returns, whether the animation is currently paused, because the drawable is not visible or
+     * fully transparent.
      *
-     * @return The listener, which has been created, as an instance of the type {@link
-     * AnimatorListener}
+     * @return True, if the animation is currently paused, false otherwise
      */
-    private AnimatorListener createSweepAnimatorListener() {
-        return new AnimatorListener() {
+    private boolean isPaused() {
+        return !isVisible() || alpha == 0;
+    }
 
-            @Override
-            public void onAnimationStart(final Animator animation) {
+    /**
+     * Adapts, whether the drawable is notified by the {@link FrameClock}, depending on whether the
+     * animation is running, on the mode and on whether the animation is paused. If the determinate
+     * mode is used, the drawable stays registered until a pending progress update is applied.
+     */
+    private void adaptFrameClockRegistration() {
+        FrameClock frameClock = FrameClock.getInstance();
 
+        if (running && indeterminate && !isPaused()) {
+            if (frameClock.add(this)) {
+                framePacer.reset();
+
+                if (frameTimingRecorder != null) {
+                    frameTimingRecorder.restart();
+                }
             }
+        } else if (indeterminate || !progressUpdatePending.get()) {
+            frameClock.remove(this);
+        }
+    }
 
-            @Override
-            public void onAnimationEnd(final Animator animation) {
+    /**
+     * The method, which is invoked by the {@link FrameClock} once per frame, while the animation
+     * is running or a progress update is pending.
+     *
+     * @param frameTime
+     *         The time of the current frame in milliseconds as a {@link Long} value
+     */
+    final void onFrame(final long frameTime) {
+        if (indeterminate) {
+            framePacer.setMaxFrameRate(
+                    state.maxFrameRate == FRAME_RATE_DEFAULT ? defaultMaxFrameRate :
+                            state.maxFrameRate);
 
+            if (!framePacer.shouldDraw(frameTime)) {
+                return;
             }
 
-            @Override
-            public void onAnimationCancel(final Animator animation) {
-
+            if (frameTimingRecorder != null) {
+                frameTimingRecorder.recordFrame(frameTime, framePacer.getTargetFrameRate(),
+                        FrameClock.getInstance().getFrameInterval());
             }
 
-            @Override
-            public void onAnimationRepeat(final Animator animation) {
-                appearing = !appearing;
+            geometry.update(Math.max(0, frameTime - startTime));
+        } else {
+            applyProgress();
+            FrameClock.getInstance().remove(this);
+        }
 
-                if (appearing) {
-                    currentGlobalAngleOffset =
-                            (currentGlobalAngleOffset + MIN_SWEEP_ANGLE * 2) % MAX_DEGREES;
-                }
+        invalidateSelf();
+    }
+
+    /**
+     * Draws the arc, depending on the mode, the current progress and the current state of the
+     * animation.
+     *
+     * @param canvas
+     *         The canvas, the arc should be drawn to, as an instance of the class {@link Canvas}.
+     *         The canvas may not be null
+     */
+    private void drawArc(@NonNull final Canvas canvas) {
+        if (!indeterminate) {
+            float sweepAngle = currentProgress * 360;
+
+            if (gradientShader != null) {
+                drawGradientArc(canvas, DETERMINATE_START_ANGLE, sweepAngle);
+            } else {
+                canvas.drawArc(bounds, DETERMINATE_START_ANGLE, sweepAngle, false, paint);
             }
 
-        };
+            return;
+        }
+
+        SpinnerGeometry currentGeometry = running ? geometry : INITIAL_GEOMETRY;
+
+        if (atlas != null && atlas.isReleased()) {
+            atlas = null;
+        }
+
+        if (gradientShader == null && state.colorSequence != null) {
+            applyPaintColor(state.colorSequence
+                    .getColor(currentGeometry.getCycle(), currentGeometry.getCycleFraction()));
+        }
+
+        if (gradientShader != null) {
+            drawGradientArc(canvas, currentGeometry.getStartAngle(),
+                    currentGeometry.getSweepAngle());
+        } else if (atlas != null) {
+            int index = atlas.getFrameIndex(currentGeometry.getCycleFraction());
+            int saveCount = canvas.save();
+            canvas.rotate(currentGeometry.getStartAngle(), atlasDestination.exactCenterX(),
+                    atlasDestination.exactCenterY());
+            atlas.draw(canvas, index, atlasSource, atlasDestination, atlasPaint);
+            canvas.restoreToCount(saveCount);
+        } else {
+            canvas.drawArc(bounds, currentGeometry.getStartAngle(),
+                    currentGeometry.getSweepAngle(), false, paint);
+        }
+    }
+
+    /**
+     * Creates a new animated drawable, which uses a specific constant state.
+     *
+     * @param state
+     *         The constant state, which should be used, as an instance of the class {@link
+     *         CircularProgressState}. The state may not be null
+     */
+    private CircularProgressDrawable(@NonNull final CircularProgressState state) {
+        this.state = state;
+        this.mutated = false;
+        this.alpha = 255;
+        this.phaseKey = null;
+        this.bounds = new RectF();
+        this.ringGeometry = new RingGeometry();
+        this.dirtyBounds = new Rect();
+        this.geometry = null;
+        this.framePacer = null;
+        this.powerSaveMode = false;
+        this.indeterminate = true;
+        this.progressBits = new AtomicInteger(Float.floatToIntBits(0));
+        this.progressUpdatePending = new AtomicBoolean(false);
+        this.progressUpdateRunnable = createProgressUpdateRunnable();
+        this.currentProgress = 0;
+        this.frameTimingRecorder = null;
+        this.atlasSource = new Rect();
+        this.atlasDestination = new Rect();
+        this.gradientShader = null;
+        initializePaint();
+    }
+
+    /**
+     * Creates a new animated drawable, which is black and has a thickness of 1 pixel. This
+     * constructor is used, when the drawable is inflated from XML.
+     */
+    public CircularProgressDrawable() {
+        this(Color.BLACK, 1);
     }
 
     /**
@@ -249,12 +727,7 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
      *         The thickness of the progress drawable as an {@link Integer} value in pixels
      */
     public CircularProgressDrawable(@ColorInt final int color, final int thickness) {
-        Condition.INSTANCE.ensureAtLeast(thickness, 1, "The thickness must be at least 1");
-        this.color = color;
-        this.thickness = thickness;
-        this.bounds = new RectF();
-        initializePaint();
-        initializeAnimators();
+        this(new CircularProgressState(color, thickness));
     }
 
     /**
@@ -263,7 +736,90 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
      * @return The color of the progress drawable as an {@link Integer} value
      */
     public final int getColor() {
-        return color;
+        return state.color;
+    }
+
+    /**
+     * Sets the color of the progress drawable. The paint, which is used for drawing, is updated
+     * in place, which means that a running animation is not interrupted.
+     *
+     * @param color
+     *         The color, which should be set, as an {@link Integer} value
+     */
+    public final void setColor(@ColorInt final int color) {
+        state.color = color;
+        adaptPaintColor();
+        invalidateSelf();
+    }
+
+    /**
+     * Returns the sequence of colors, which is cycled by the indeterminate animation.
+     *
+     * @return A copy of the array, which contains the sequence of colors, as an {@link Integer}
+     * array or null, if only a single color is used
+     */
+    @Nullable
+    public final int[] getColors() {
+        return state.colorSequence != null ? state.colorSequence.getColors() : null;
+    }
+
+    /**
+     * Sets the sequence of colors, which should be cycled by the indeterminate animation. Each
+     * color is used for a whole cycle of the animation, i.e. until the arc has shrunk and grown
+     * again. During the last quarter of a cycle, the color is blended towards the next one. The
+     * blended colors are precomputed when this method is called. If a sequence of colors is set,
+     * the color, which has been set by using the method {@link #setColor(int)}, as well as the
+     * tint, are only used by the determinate mode.
+     *
+     * @param colors
+     *         An array, which contains the sequence of colors, which should be set, as an {@link
+     *         Integer} array or null, if only a single color should be used. The array must
+     *         contain at least one color
+     */
+    public final void setColors(@Nullable final int[] colors) {
+        if (colors != null) {
+            Condition.INSTANCE.ensureAtLeast(colors.length, 1,
+                    "The sequence must contain at least one color");
+            state.colorSequence = new ColorSequence(colors, state.colorTableResolution);
+        } else {
+            state.colorSequence = null;
+        }
+
+        adaptPaintColor();
+        invalidateSelf();
+    }
+
+    /**
+     * Returns the number of colors, which are precomputed per transition between two colors, if a
+     * sequence of colors is used.
+     *
+     * @return The number of colors, which are precomputed per transition between two colors, as
+     * an {@link Integer} value
+     */
+    public final int getColorTableResolution() {
+        return state.colorTableResolution;
+    }
+
+    /**
+     * Sets the number of colors, which should be precomputed per transition between two colors, if
+     * a sequence of colors is used. A greater resolution results in smoother transitions at the
+     * expense of memory.
+     *
+     * @param resolution
+     *         The resolution, which should be set, as an {@link Integer} value. The resolution must
+     *         be at least 2
+     */
+    public final void setColorTableResolution(final int resolution) {
+        Condition.INSTANCE.ensureAtLeast(resolution, 2, "The resolution must be at least 2");
+
+        if (state.colorTableResolution != resolution) {
+            state.colorTableResolution = resolution;
+
+            if (state.colorSequence != null) {
+                state.colorSequence =
+                        new ColorSequence(state.colorSequence.getColors(), resolution);
+            }
+        }
     }
 
     /**
@@ -272,17 +828,425 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
      * @return The thickness of the progress drawable in pixels as an {@link Integer}
      */
     public final int getThickness() {
-        return thickness;
+        return state.thickness;
+    }
+
+    /**
+     * Sets the thickness of the progress drawable. The paint, which is used for drawing, is
+     * updated in place, which means that a running animation is not interrupted.
+     *
+     * @param thickness
+     *         The thickness, which should be set, in pixels as an {@link Integer} value. The
+     *         thickness must be at least 1
+     */
+    public final void setThickness(final int thickness) {
+        Condition.INSTANCE.ensureAtLeast(thickness, 1, "The thickness must be at least 1");
+        state.thickness = thickness;
+        paint.setStrokeWidth(thickness);
+        adaptArcBounds(getBounds());
+        invalidateSelf();
+    }
+
+    /**
+     * Returns the default maximum frame rate, which is used by all drawables, whose maximum frame
+     * rate is {@link #FRAME_RATE_DEFAULT}.
+     *
+     * @return The default maximum frame rate as an {@link Integer} value or {@link
+     * #FRAME_RATE_UNLIMITED}
+     */
+    public static int getDefaultMaxFrameRate() {
+        return defaultMaxFrameRate;
+    }
+
+    /**
+     * Sets the default maximum frame rate, which should be used by all drawables, whose maximum
+     * frame rate is {@link #FRAME_RATE_DEFAULT}.
+     *
+     * @param frameRate
+     *         The frame rate, which should be set, as an {@link Integer} value or {@link
+     *         #FRAME_RATE_UNLIMITED}. The frame rate must be at least 0
+     */
+    public static void setDefaultMaxFrameRate(final int frameRate) {
+        Condition.INSTANCE.ensureAtLeast(frameRate, 0, "The frame rate must be at least 0");
+        defaultMaxFrameRate = frameRate;
+    }
+
+    /**
+     * Returns the number of drawables, whose animation is currently running and not paused. This
+     * includes drawables, which use the determinate mode and whose progress update is pending. This
+     * method must be called on the UI thread.
+     *
+     * @return The number of drawables, whose animation is currently running and not paused, as an
+     * {@link Integer} value
+     */
+    public static int getRunningCount() {
+        return FrameClock.getInstance().getCount();
+    }
+
+    /**
+     * Removes the phase, which corresponds to a specific key, from the registry, which is shared
+     * by all drawables. This should be done, once the task, which is identified by the key, has
+     * been finished. This method must be called on the UI thread.
+     *
+     * @param key
+     *         The key, whose phase should be removed, as an instance of the class {@link Object}.
+     *         The key may not be null
+     */
+    public static void releasePhaseKey(@NonNull final Object key) {
+        PhaseRegistry.getInstance().remove(key);
+    }
+
+    /**
+     * Returns the key, which is used to share the phase of the animation with other drawables.
+     *
+     * @return The key, which is used to share the phase of the animation with other drawables, as
+     * an instance of the class {@link Object} or null, if the phase is not shared
+     */
+    @Nullable
+    public final Object getPhaseKey() {
+        return phaseKey;
+    }
+
+    /**
+     * Sets the key, which should be used to share the phase of the animation with other
+     * drawables. All drawables, which use the same key, e.g. the identifier of a task, whose
+     * progress is shown, are animated in phase. When a drawable is started or bound to a key, it
+     * continues at the phase, which corresponds to the key, instead of restarting the animation.
+     * This method must be called on the UI thread.
+     *
+     * @param key
+     *         The key, which should be set, as an instance of the class {@link Object} or null, if
+     *         the phase should not be shared. The key must implement the methods {@link
+     *         Object#equals(Object)} and {@link Object#hashCode()} appropriately
+     */
+    public final void setPhaseKey(@Nullable final Object key) {
+        if (phaseKey == null ? key != null : !phaseKey.equals(key)) {
+            this.phaseKey = key;
+
+            if (running && indeterminate && key != null) {
+                restartAnimation();
+                invalidateSelf();
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum frame rate of the animation.
+     *
+     * @return The maximum frame rate of the animation as an {@link Integer} value, {@link
+     * #FRAME_RATE_UNLIMITED} or {@link #FRAME_RATE_DEFAULT}
+     */
+    public final int getMaxFrameRate() {
+        return state.maxFrameRate;
+    }
+
+    /**
+     * Sets the maximum frame rate of the animation. Frames, which are delivered by the display
+     * between the targeted frames, are skipped.
+     *
+     * @param frameRate
+     *         The frame rate, which should be set, as an {@link Integer} value, {@link
+     *         #FRAME_RATE_UNLIMITED} or {@link #FRAME_RATE_DEFAULT}
+     */
+    public final void setMaxFrameRate(final int frameRate) {
+        Condition.INSTANCE.ensureAtLeast(frameRate, FRAME_RATE_DEFAULT,
+                "The frame rate must be at least " + FRAME_RATE_DEFAULT);
+        state.maxFrameRate = frameRate;
+    }
+
+    /**
+     * Sets, whether the adaptive frame rate should be enabled, or not. If enabled, the frame rate
+     * is lowered, when janky frames are detected or reported, or when the device is in power save
+     * mode, and raised again, once the animation runs smoothly.
+     *
+     * @param adaptive
+     *         True, if the adaptive frame rate should be enabled, false otherwise
+     */
+    public final void setAdaptiveFrameRate(final boolean adaptive) {
+        state.adaptiveFrameRate = adaptive;
+
+        if (framePacer != null) {
+            framePacer.setAdaptive(adaptive);
+        }
+    }
+
+    /**
+     * Returns, whether the adaptive frame rate is enabled, or not.
+     *
+     * @return True, if the adaptive frame rate is enabled, false otherwise
+     */
+    public final boolean isAdaptiveFrameRate() {
+        return state.adaptiveFrameRate;
+    }
+
+    /**
+     * Sets, whether the device is in power save mode, or not. If the adaptive frame rate is
+     * enabled, this causes the frame rate to be lowered.
+     *
+     * @param powerSaveMode
+     *         True, if the device is in power save mode, false otherwise
+     */
+    public final void setPowerSaveMode(final boolean powerSaveMode) {
+        this.powerSaveMode = powerSaveMode;
+
+        if (framePacer != null) {
+            framePacer.setPowerSaveMode(powerSaveMode);
+        }
+    }
+
+    /**
+     * Reports, that the host of the drawable has encountered a janky frame. If the adaptive frame
+     * rate is enabled, this causes the frame rate to be lowered.
+     */
+    public final void reportJank() {
+        if (framePacer != null) {
+            framePacer.reportJank();
+        }
+    }
+
+    /**
+     * Returns, whether frame timing statistics are recorded, or not.
+     *
+     * @return True, if frame timing statistics are recorded, false otherwise
+     */
+    public final boolean isFrameTimingEnabled() {
+        return frameTimingRecorder != null;
+    }
+
+    /**
+     * Sets, whether frame timing statistics should be recorded, or not. If enabled, the duration
+     * of each invocation of the method {@link #draw(Canvas)}, as well as the intervals between
+     * consecutive frames of the indeterminate animation, are recorded into fixed-size histograms
+     * without allocating any objects. If disabled, the recorded statistics are discarded and
+     * recording does not cause any overhead. This method must be called on the UI thread.
+     *
+     * @param enabled
+     *         True, if frame timing statistics should be recorded, false otherwise
+     */
+    public final void setFrameTimingEnabled(final boolean enabled) {
+        if (enabled && frameTimingRecorder == null) {
+            frameTimingRecorder = new FrameTimingRecorder();
+        } else if (!enabled) {
+            frameTimingRecorder = null;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the frame timing statistics, which have been recorded so far. This
+     * method must be called on the UI thread.
+     *
+     * @return The snapshot as an instance of the class {@link FrameTimingStats} or null, if no
+     * frame timing statistics are recorded
+     */
+    @Nullable
+    public final FrameTimingStats getFrameTimingStats() {
+        return frameTimingRecorder != null ? frameTimingRecorder.getSnapshot() : null;
+    }
+
+    /**
+     * Resets the frame timing statistics, which have been recorded so far. This method must be
+     * called on the UI thread.
+     */
+    public final void resetFrameTimingStats() {
+        if (frameTimingRecorder != null) {
+            frameTimingRecorder.reset();
+        }
+    }
+
+    /**
+     * Returns, whether the indeterminate mode is used, or not.
+     *
+     * @return True, if the indeterminate mode is used, false, if the determinate mode is used
+     */
+    public final boolean isIndeterminate() {
+        return indeterminate;
+    }
+
+    /**
+     * Sets, whether the indeterminate mode should be used, or not. This method must be called on
+     * the UI thread.
+     *
+     * @param indeterminate
+     *         True, if the indeterminate mode should be used, false, if the determinate mode should
+     *         be used
+     */
+    public final void setIndeterminate(final boolean indeterminate) {
+        if (this.indeterminate != indeterminate) {
+            this.indeterminate = indeterminate;
+
+            if (indeterminate) {
+                if (running) {
+                    framePacer.reset();
+                    restartAnimation();
+                }
+            } else {
+                applyProgress();
+                adaptPaintColor();
+            }
+
+            adaptFrameClockRegistration();
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * Returns the progress, which has most recently been set. The progress is only shown, if the
+     * determinate mode is used.
+     *
+     * @return The progress, which has most recently been set, as a {@link Float} value between 0
+     * and 1
+     */
+    public final float getProgress() {
+        return Float.intBitsToFloat(progressBits.get());
+    }
+
+    /**
+     * Sets the progress, which should be shown, if the determinate mode is used. This method may
+     * be called from any thread. The drawable is invalidated on the next frame, regardless of how
+     * many times the progress is updated in the meantime.
+     *
+     * @param progress
+     *         The progress, which should be set, as a {@link Float} value between 0 and 1
+     */
+    public final void setProgress(@FloatRange(from = 0, to = 1) final float progress) {
+        Condition.INSTANCE.ensureAtLeast(progress, 0, "The progress must be at least 0");
+        Condition.INSTANCE.ensureAtMaximum(progress, 1, "The progress must be at maximum 1");
+        progressBits.set(Float.floatToIntBits(progress));
+
+        if (progressUpdatePending.compareAndSet(false, true)) {
+            MAIN_HANDLER.post(progressUpdateRunnable);
+        }
+    }
+
+    /**
+     * Returns, whether the atlas mode is enabled, or not. If enabled, a full cycle of the
+     * animation is pre-rendered into a bitmap and drawing the drawable only requires to draw the
+     * appropriate frame.
+     *
+     * @return True, if the atlas mode is enabled, false otherwise
+     */
+    public final boolean isAtlasEnabled() {
+        return state.atlasEnabled;
+    }
+
+    /**
+     * Sets, whether the atlas mode should be enabled, or not. If enabled, a full cycle of the
+     * animation is pre-rendered into a bitmap and drawing the drawable only requires to draw the
+     * appropriate frame. This reduces the cost of drawing on low-end devices at the expense of
+     * memory. If the pre-rendered frames would exceed the maximum size of the cache on their own,
+     * the arc is drawn as if the atlas mode was disabled. The same applies, once the frames have
+     * been evicted from the cache, until the bounds or the thickness of the drawable change.
+     *
+     * @param enabled
+     *         True, if the atlas mode should be enabled, false otherwise
+     */
+    public final void setAtlasEnabled(final boolean enabled) {
+        state.atlasEnabled = enabled;
+        adaptAtlas();
+        invalidateSelf();
+    }
+
+    /**
+     * Returns, whether the arc is drawn with a gradient, which fades towards its tail, or not.
+     *
+     * @return True, if the arc is drawn with a gradient, false otherwise
+     */
+    public final boolean isGradientEnabled() {
+        return state.gradientEnabled;
+    }
+
+    /**
+     * Sets, whether the arc should be drawn with a gradient, which fades towards its tail, or not.
+     * The gradient is created, when the bounds or the color of the drawable are changed, and only
+     * rotated on each frame. If the gradient mode is enabled, the drawable is always drawn in the
+     * color, which has been set by using the method {@link #setColor(int)}, taking the tint into
+     * account, i.e. a sequence of colors, which has been set by using the method {@link
+     * #setColors(int[])}, is ignored. Furthermore, the atlas mode is not used.
+     *
+     * @param enabled
+     *         True, if the gradient mode should be enabled, false otherwise
+     */
+    public final void setGradientEnabled(final boolean enabled) {
+        if (state.gradientEnabled != enabled) {
+            state.gradientEnabled = enabled;
+            adaptPaintColor();
+            adaptGradient();
+            adaptAtlas();
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * Returns the number of frames, which are pre-rendered, if the atlas mode is enabled.
+     *
+     * @return The number of frames, which are pre-rendered, if the atlas mode is enabled, as an
+     * {@link Integer} value
+     */
+    public final int getAtlasFrameCount() {
+        return state.atlasFrameCount;
+    }
+
+    /**
+     * Sets the number of frames, which should be pre-rendered, if the atlas mode is enabled.
+     *
+     * @param frameCount
+     *         The number of frames, which should be set, as an {@link Integer} value. The number of
+     *         frames must be at least 1
+     */
+    public final void setAtlasFrameCount(final int frameCount) {
+        Condition.INSTANCE.ensureAtLeast(frameCount, 1, "The frame count must be at least 1");
+        state.atlasFrameCount = frameCount;
+        adaptAtlas();
+        invalidateSelf();
+    }
+
+    /**
+     * Sets the maximum size of the cache, which contains the pre-rendered frames of all drawables,
+     * which use the atlas mode.
+     *
+     * @param maxSize
+     *         The maximum size, which should be set, in bytes as an {@link Integer} value. The
+     *         maximum size must be at least 1
+     */
+    public static void setMaxAtlasCacheSize(final int maxSize) {
+        SpinnerAtlas.setMaxCacheSize(maxSize);
     }
 
     @Override
     public final void setAlpha(final int alpha) {
-        paint.setAlpha(alpha);
+        this.alpha = alpha;
+        adaptPaintColor();
+        adaptFrameClockRegistration();
+    }
+
+    @Override
+    public final int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public final boolean setVisible(final boolean visible, final boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        adaptFrameClockRegistration();
+        return changed;
     }
 
     @Override
     public final void setColorFilter(final ColorFilter cf) {
         paint.setColorFilter(cf);
+        atlasPaint.setColorFilter(cf);
+    }
+
+    @Override
+    public final void setTintList(@Nullable final ColorStateList tint) {
+        state.tint = tint;
+        adaptPaintColor();
+        invalidateSelf();
+    }
+
+    @Override
+    public final boolean isStateful() {
+        return state.tint != null && state.tint.isStateful();
     }
 
     @Override
@@ -290,26 +1254,112 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         return PixelFormat.TRANSPARENT;
     }
 
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
     @Override
-    public final void draw(@NonNull final Canvas canvas) {
-        float startAngle = currentGlobalAngle - currentGlobalAngleOffset;
-        float sweepAngle = currentSweepAngle;
+    public final void inflate(@NonNull final Resources resources,
+                              @NonNull final XmlPullParser parser,
+                              @NonNull final AttributeSet attributeSet,
+                              @Nullable final Resources.Theme theme)
+            throws XmlPullParserException, IOException {
+        super.inflate(resources, parser, attributeSet, theme);
+        TypedArray typedArray = theme != null ? theme
+                .obtainStyledAttributes(attributeSet, R.styleable.CircularProgressDrawable, 0, 0) :
+                resources.obtainAttributes(attributeSet, R.styleable.CircularProgressDrawable);
 
-        if (!appearing) {
-            startAngle = startAngle + sweepAngle;
-            sweepAngle = MAX_DEGREES - sweepAngle - MIN_SWEEP_ANGLE;
-        } else {
-            sweepAngle += MIN_SWEEP_ANGLE;
+        try {
+            state.changingConfigurations |= typedArray.getChangingConfigurations();
+            state.color = typedArray
+                    .getColor(R.styleable.CircularProgressDrawable_android_color, state.color);
+            int thickness = typedArray
+                    .getDimensionPixelSize(R.styleable.CircularProgressDrawable_android_thickness,
+                            state.thickness);
+            Condition.INSTANCE.ensureAtLeast(thickness, 1, "The thickness must be at least 1");
+            state.thickness = thickness;
+            ColorStateList tint =
+                    typedArray.getColorStateList(R.styleable.CircularProgressDrawable_android_tint);
+            state.tint = tint != null ? tint : state.tint;
+            int maxFrameRate = typedArray
+                    .getInt(R.styleable.CircularProgressDrawable_maxFrameRate, state.maxFrameRate);
+            Condition.INSTANCE.ensureAtLeast(maxFrameRate, FRAME_RATE_DEFAULT,
+                    "The frame rate must be at least " + FRAME_RATE_DEFAULT);
+            state.maxFrameRate = maxFrameRate;
+            state.adaptiveFrameRate = typedArray
+                    .getBoolean(R.styleable.CircularProgressDrawable_adaptiveFrameRate,
+                            state.adaptiveFrameRate);
+            state.gradientEnabled = typedArray
+                    .getBoolean(R.styleable.CircularProgressDrawable_gradientEnabled,
+                            state.gradientEnabled);
+            state.atlasEnabled = typedArray
+                    .getBoolean(R.styleable.CircularProgressDrawable_atlasEnabled,
+                            state.atlasEnabled);
+            int atlasFrameCount = typedArray
+                    .getInt(R.styleable.CircularProgressDrawable_atlasFrameCount,
+                            state.atlasFrameCount);
+            Condition.INSTANCE.ensureAtLeast(atlasFrameCount, 1,
+                    "The frame count must be at least 1");
+            state.atlasFrameCount = atlasFrameCount;
+        } finally {
+            typedArray.recycle();
+        }
+
+        if (framePacer != null) {
+            framePacer.setAdaptive(state.adaptiveFrameRate);
+        }
+
+        paint.setStrokeWidth(state.thickness);
+        adaptPaintColor();
+        adaptArcBounds(getBounds());
+    }
+
+    @NonNull
+    @Override
+    public final Drawable mutate() {
+        if (!mutated && super.mutate() == this) {
+            state = new CircularProgressState(state);
+            mutated = true;
         }
 
-        canvas.drawArc(bounds, startAngle, sweepAngle, false, paint);
+        return this;
+    }
+
+    @Override
+    public final ConstantState getConstantState() {
+        state.changingConfigurations = getChangingConfigurations();
+        return state;
+    }
+
+    @Override
+    public final int getChangingConfigurations() {
+        return super.getChangingConfigurations() | state.changingConfigurations;
+    }
+
+    @Override
+    public final void draw(@NonNull final Canvas canvas) {
+        if (frameTimingRecorder == null) {
+            drawArc(canvas);
+        } else {
+            long startTime = System.nanoTime();
+            drawArc(canvas);
+            frameTimingRecorder.recordDraw(System.nanoTime() - startTime);
+        }
     }
 
     @Override
     public final void start() {
         if (!isRunning()) {
-            angleAnimator.start();
-            sweepAnimator.start();
+            running = true;
+
+            if (geometry == null) {
+                geometry = new SpinnerGeometry();
+                framePacer = new FramePacer();
+                framePacer.setAdaptive(state.adaptiveFrameRate);
+                framePacer.setPowerSaveMode(powerSaveMode);
+            } else {
+                framePacer.reset();
+            }
+
+            restartAnimation();
+            adaptFrameClockRegistration();
             invalidateSelf();
         }
     }
@@ -317,36 +1367,37 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
     @Override
     public final void stop() {
         if (isRunning()) {
-            angleAnimator.cancel();
-            sweepAnimator.cancel();
+            running = false;
+            adaptFrameClockRegistration();
             invalidateSelf();
         }
     }
 
     @Override
     public final boolean isRunning() {
-        return angleAnimator.isRunning();
+        return running;
     }
 
     @Override
     protected final void onBoundsChange(final Rect bounds) {
         super.onBoundsChange(bounds);
-        int width = bounds.right - bounds.left;
-        int height = bounds.bottom - bounds.top;
+        adaptArcBounds(bounds);
+    }
 
-        if (width < height) {
-            int diff = height - width;
-            this.bounds.left = bounds.left + thickness / 2.0f + 0.5f;
-            this.bounds.right = bounds.right - thickness / 2.0f - 0.5f;
-            this.bounds.top = bounds.top + diff / 2.0f + thickness / 2.0f + 0.5f;
-            this.bounds.bottom = bounds.bottom - diff / 2.0f - thickness / 2.0f - 0.5f;
-        } else {
-            int diff = width - height;
-            this.bounds.left = bounds.left + diff / 2.0f + thickness / 2.0f + 0.5f;
-            this.bounds.right = bounds.right - diff / 2.0f - thickness / 2.0f - 0.5f;
-            this.bounds.top = bounds.top + thickness / 2.0f + 0.5f;
-            this.bounds.bottom = bounds.bottom - thickness / 2.0f - 0.5f;
+    @Override
+    protected final boolean onStateChange(final int[] stateSet) {
+        if (state.tint != null && adaptPaintColor()) {
+            invalidateSelf();
+            return true;
         }
+
+        return false;
+    }
+
+    @NonNull
+    @Override
+    public final Rect getDirtyBounds() {
+        return dirtyBounds;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+/**
+ * A sequence of colors, which is cycled by a {@link CircularProgressDrawable}. Each color is used
+ * for a whole cycle of the animation. During the last quarter of a cycle, the color is blended
+ * towards the color of the next cycle.
+ * <p>
+ * The blended colors are precomputed at a fixed resolution and stored in a lookup table, which
+ * means that retrieving a color neither allocates any objects nor requires any arithmetics on the
+ * color channels.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class ColorSequence {
+
+    /**
+     * The fraction of a cycle, the color starts to be blended towards the next one at.
+     */
+    static final float TRANSITION_START = 0.75f;
+
+    /**
+     * The colors of the sequence.
+     */
+    private final int[] colors;
+
+    /**
+     * The number of entries of the lookup table per transition between two colors.
+     */
+    private final int resolution;
+
+    /**
+     * The lookup table, which contains the blended colors of all transitions.
+     */
+    private final int[] table;
+
+    /**
+     * Blends a single channel of two colors.
+     *
+     * @param from
+     *         The color, which should be blended from, as an {@link Integer} value
+     * @param to
+     *         The color, which should be blended to, as an {@link Integer} value
+     * @param shift
+     *         The number of bits, the channel is shifted by, as an {@link Integer} value
+     * @param fraction
+     *         The fraction of the blend as a {@link Float} value between 0 and 1
+     * @return The blended channel, shifted to its position within a color, as an {@link Integer}
+     * value
+     */
+    private static int blendChannel(final int from, final int to, final int shift,
+                                    final float fraction) {
+        int fromChannel = (from >>> shift) & 0xff;
+        int toChannel = (to >>> shift) & 0xff;
+        return (fromChannel + Math.round((toChannel - fromChannel) * fraction)) << shift;
+    }
+
+    /**
+     * Blends two ARGB colors by interpolating each channel linearly.
+     *
+     * @param from
+     *         The color, which should be blended from, as an {@link Integer} value
+     * @param to
+     *         The color, which should be blended to, as an {@link Integer} value
+     * @param fraction
+     *         The fraction of the blend as a {@link Float} value between 0 and 1
+     * @return The blended color as an {@link Integer} value
+     */
+    static int blend(final int from, final int to, final float fraction) {
+        return blendChannel(from, to, 24, fraction) | blendChannel(from, to, 16, fraction) |
+                blendChannel(from, to, 8, fraction) | blendChannel(from, to, 0, fraction);
+    }
+
+    /**
+     * Creates a new sequence of colors.
+     *
+     * @param colors
+     *         An array, which contains the colors of the sequence, as an {@link Integer} array.
+     *         The array must contain at least one color
+     * @param resolution
+     *         The number of entries of the lookup table per transition between two colors as an
+     *         {@link Integer} value. The resolution must be at least 2
+     */
+    ColorSequence(final int[] colors, final int resolution) {
+        this.colors = colors.clone();
+        this.resolution = resolution;
+        this.table = new int[colors.length * resolution];
+
+        for (int i = 0; i < colors.length; i++) {
+            int from = colors[i];
+            int to = colors[(i + 1) % colors.length];
+
+            for (int j = 0; j < resolution; j++) {
+                table[i * resolution + j] = blend(from, to, j / (float) (resolution - 1));
+            }
+        }
+    }
+
+    /**
+     * Returns the color, which corresponds to a specific cycle and a fraction of it.
+     *
+     * @param cycle
+     *         The index of the cycle as a {@link Long} value. The index must be at least 0
+     * @param cycleFraction
+     *         The fraction of the cycle as a {@link Float} value between 0 (inclusive) and 1
+     *         (exclusive)
+     * @return The color, which corresponds to the given cycle and fraction, as an {@link Integer}
+     * value
+     */
+    int getColor(final long cycle, final float cycleFraction) {
+        int index = (int) (cycle % colors.length);
+
+        if (cycleFraction < TRANSITION_START) {
+            return colors[index];
+        }
+
+        int step = (int) ((cycleFraction - TRANSITION_START) / (1 - TRANSITION_START) *
+                resolution);
+        return table[index * resolution + Math.min(step, resolution - 1)];
+    }
+
+    /**
+     * Returns the colors of the sequence.
+     *
+     * @return A copy of the array, which contains the colors of the sequence, as an {@link
+     * Integer} array
+     */
+    int[] getColors() {
+        return colors.clone();
+    }
+
+    /**
+     * Returns the number of entries of the lookup table per transition between two colors.
+     *
+     * @return The number of entries of the lookup table per transition between two colors as an
+     * {@link Integer} value
+     */
+    int getResolution() {
+        return resolution;
+    }
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import de.mrapp.util.Condition;
+
+/**
+ * A clock, which is shared by all instances of the class {@link CircularProgressDrawable}. It
+ * registers a single callback, which is invoked once per frame, and notifies all running drawables
+ * about the current frame time. On devices with API level 16 or greater, the clock is driven by the
+ * {@link Choreographer}, otherwise a {@link Handler} is used. Additionally, the clock estimates the
+ * interval between two frames, which corresponds to the refresh rate of the display, from the
+ * median of the most recently observed frame intervals.
+ * <p>
+ * The clock must only be accessed from the UI thread. Dispatching a frame does not allocate any
+ * objects.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class FrameClock {
+
+    /**
+     * A callback, which is invoked by the {@link Choreographer} once per frame.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class ChoreographerCallback implements Choreographer.FrameCallback {
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+
+        /**
+         * Schedules the callback to be invoked on the next frame.
+         */
+        void schedule() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        /**
+         * Removes the callback, if it has been scheduled.
+         */
+        void cancel() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+    }
+
+    /**
+     * The initial capacity of the array, which contains the drawables, which are driven by the
+     * clock.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The number of the most recently observed frame intervals, which are used to estimate the
+     * refresh rate of the display.
+     */
+    private static final int FRAME_INTERVAL_SAMPLE_COUNT = 15;
+
+    /**
+     * The interval between two frames in milliseconds, which is assumed, if no frame intervals
+     * have been observed yet. It corresponds to a refresh rate of 60 Hz.
+     */
+    private static final float DEFAULT_FRAME_INTERVAL = 1000f / 60;
+
+    /**
+     * The single instance of the class.
+     */
+    private static FrameClock instance;
+
+    /**
+     * An array, which contains the drawables, which are currently driven by the clock. Only the
+     * first {@link #count} elements are used.
+     */
+    private CircularProgressDrawable[] drawables;
+
+    /**
+     * The number of drawables, which are currently driven by the clock.
+     */
+    private int count;
+
+    /**
+     * The callback, which is used to drive the clock on devices with API level 16 or greater.
+     */
+    private final ChoreographerCallback choreographerCallback;
+
+    /**
+     * The handler, which is used to drive the clock on devices with an API level less than 16.
+     */
+    private final Handler handler;
+
+    /**
+     * The runnable, which is used to drive the clock on devices with an API level less than 16.
+     */
+    private final Runnable handlerCallback;
+
+    /**
+     * True, if a callback for the next frame has been scheduled, false otherwise.
+     */
+    private boolean scheduled;
+
+    /**
+     * The time of the current frame in milliseconds.
+     */
+    private long frameTime;
+
+    /**
+     * The time of the previous frame in nanoseconds or -1, if no frame has been observed since the
+     * clock has been started.
+     */
+    private long previousFrameTimeNanos;
+
+    /**
+     * A ring buffer, which contains the most recently observed frame intervals in nanoseconds.
+     */
+    private final long[] frameIntervals;
+
+    /**
+     * An array, which is used to sort the observed frame intervals.
+     */
+    private final long[] sortedFrameIntervals;
+
+    /**
+     * The number of frame intervals, which have been observed, up to {@link
+     * #FRAME_INTERVAL_SAMPLE_COUNT}.
+     */
+    private int frameIntervalCount;
+
+    /**
+     * The index of the ring buffer, the next frame interval is stored at.
+     */
+    private int nextFrameIntervalIndex;
+
+    /**
+     * The median of the observed frame intervals in nanoseconds or -1, if it must be computed.
+     */
+    private long medianFrameInterval;
+
+    /**
+     * Creates a new clock.
+     */
+    private FrameClock() {
+        this.drawables = new CircularProgressDrawable[INITIAL_CAPACITY];
+        this.count = 0;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            this.choreographerCallback = new ChoreographerCallback();
+            this.handler = null;
+            this.handlerCallback = null;
+        } else {
+            this.choreographerCallback = null;
+            this.handler = new Handler(Looper.getMainLooper());
+            this.handlerCallback = createHandlerCallback();
+        }
+
+        this.scheduled = false;
+        this.frameTime = SystemClock.uptimeMillis();
+        this.previousFrameTimeNanos = -1;
+        this.frameIntervals = new long[FRAME_INTERVAL_SAMPLE_COUNT];
+        this.sortedFrameIntervals = new long[FRAME_INTERVAL_SAMPLE_COUNT];
+        this.frameIntervalCount = 0;
+        this.nextFrameIntervalIndex = 0;
+        this.medianFrameInterval = -1;
+    }
+
+    /**
+     * Creates and returns a runnable, which allows to drive the clock on devices with an API level
+     * less than 16.
+     *
+     * @return The runnable, which has been created, as an instance of the type {@link Runnable}
+     */
+    private Runnable createHandlerCallback() {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                onFrame(TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis()));
+            }
+
+        };
+    }
+
+    /**
+     * Schedules a callback, which is invoked on the next frame, if not already scheduled.
+     */
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+
+            if (choreographerCallback != null) {
+                choreographerCallback.schedule();
+            } else {
+                handler.postDelayed(handlerCallback, ValueAnimator.getFrameDelay());
+            }
+        }
+    }
+
+    /**
+     * Cancels the callback, which has been scheduled for the next frame, if any.
+     */
+    private void cancel() {
+        previousFrameTimeNanos = -1;
+
+        if (scheduled) {
+            scheduled = false;
+
+            if (choreographerCallback != null) {
+                choreographerCallback.cancel();
+            } else {
+                handler.removeCallbacks(handlerCallback);
+            }
+        }
+    }
+
+    /**
+     * Records the interval between a specific frame and the previous one.
+     *
+     * @param frameTimeNanos
+     *         The time of the frame in nanoseconds as a {@link Long} value
+     */
+    private void recordFrameInterval(final long frameTimeNanos) {
+        if (previousFrameTimeNanos != -1 && frameTimeNanos > previousFrameTimeNanos) {
+            frameIntervals[nextFrameIntervalIndex] = frameTimeNanos - previousFrameTimeNanos;
+            nextFrameIntervalIndex = (nextFrameIntervalIndex + 1) % FRAME_INTERVAL_SAMPLE_COUNT;
+            frameIntervalCount = Math.min(frameIntervalCount + 1, FRAME_INTERVAL_SAMPLE_COUNT);
+            medianFrameInterval = -1;
+        }
+
+        previousFrameTimeNanos = frameTimeNanos;
+    }
+
+    /**
+     * The method, which is invoked once per frame. It notifies all drawables about the frame and
+     * schedules the next frame, if any drawables are still driven by the clock.
+     *
+     * @param frameTimeNanos
+     *         The time of the frame in nanoseconds as a {@link Long} value
+     */
+    private void onFrame(final long frameTimeNanos) {
+        this.scheduled = false;
+        recordFrameInterval(frameTimeNanos);
+        dispatchFrame(TimeUnit.NANOSECONDS.toMillis(frameTimeNanos));
+
+        if (count > 0) {
+            schedule();
+        }
+    }
+
+    /**
+     * Returns the index of a specific drawable.
+     *
+     * @param drawable
+     *         The drawable, whose index should be returned, as an instance of the class {@link
+     *         CircularProgressDrawable}. The drawable may not be null
+     * @return The index of the given drawable as an {@link Integer} value or -1, if the drawable is
+     * not driven by the clock
+     */
+    private int indexOf(@NonNull final CircularProgressDrawable drawable) {
+        for (int i = 0; i < count; i++) {
+            if (drawables[i] == drawable) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the single instance of the class.
+     *
+     * @return The single instance of the class as an instance of the class {@link FrameClock}. The
+     * instance may not be null
+     */
+    @NonNull
+    static FrameClock getInstance() {
+        if (instance == null) {
+            instance = new FrameClock();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the time of the current frame. While the clock is running, all calls within the same
+     * frame return the same time, which allows drawables, which are started at the same time, to
+     * be animated in phase.
+     *
+     * @return The time of the current frame in milliseconds as a {@link Long} value
+     */
+    long getFrameTime() {
+        if (!scheduled) {
+            frameTime = SystemClock.uptimeMillis();
+        }
+
+        return frameTime;
+    }
+
+    /**
+     * Returns the estimated interval between two frames, which corresponds to the refresh rate of
+     * the display. It is the median of the most recently observed frame intervals, which makes it
+     * robust against occasional janky frames.
+     *
+     * @return The estimated interval between two frames in milliseconds as a {@link Float} value
+     */
+    float getFrameInterval() {
+        if (frameIntervalCount == 0) {
+            return DEFAULT_FRAME_INTERVAL;
+        }
+
+        if (medianFrameInterval == -1) {
+            System.arraycopy(frameIntervals, 0, sortedFrameIntervals, 0, frameIntervalCount);
+            Arrays.sort(sortedFrameIntervals, 0, frameIntervalCount);
+            medianFrameInterval = sortedFrameIntervals[frameIntervalCount / 2];
+        }
+
+        return medianFrameInterval / (float) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the number of drawables, which are currently driven by the clock.
+     *
+     * @return The number of drawables, which are currently driven by the clock, as an {@link
+     * Integer} value
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Notifies all drawables, which are currently driven by the clock, about a frame. The drawables
+     * are notified in reverse order, which allows them to be removed while the frame is
+     * dispatched. This method does not schedule the next frame.
+     *
+     * @param frameTime
+     *         The time of the frame in milliseconds as a {@link Long} value
+     */
+    void dispatchFrame(final long frameTime) {
+        this.frameTime = frameTime;
+
+        for (int i = count - 1; i >= 0; i--) {
+            if (i < count) {
+                drawables[i].onFrame(frameTime);
+            }
+        }
+    }
+
+    /**
+     * Adds a drawable, which should be notified about each frame.
+     *
+     * @param drawable
+     *         The drawable, which should be added, as an instance of the class {@link
+     *         CircularProgressDrawable}. The drawable may not be null
+     * @return True, if the drawable has been added, false, if it has already been driven by the
+     * clock
+     */
+    boolean add(@NonNull final CircularProgressDrawable drawable) {
+        Condition.INSTANCE.ensureNotNull(drawable, "The drawable may not be null");
+
+        if (indexOf(drawable) == -1) {
+            if (count == drawables.length) {
+                drawables = Arrays.copyOf(drawables, count * 2);
+            }
+
+            drawables[count++] = drawable;
+            schedule();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes a drawable, which should not be notified about frames anymore.
+     *
+     * @param drawable
+     *         The drawable, which should be removed, as an instance of the class {@link
+     *         CircularProgressDrawable}. The drawable may not be null
+     */
+    void remove(@NonNull final CircularProgressDrawable drawable) {
+        Condition.INSTANCE.ensureNotNull(drawable, "The drawable may not be null");
+        int index = indexOf(drawable);
+
+        if (index != -1) {
+            System.arraycopy(drawables, index + 1, drawables, index, count - index - 1);
+            drawables[--count] = null;
+
+            if (count == 0) {
+                cancel();
+            }
+        }
+    }
+
+}
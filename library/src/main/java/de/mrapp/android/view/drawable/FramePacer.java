@@ -0,0 +1,249 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+/**
+ * Decides, which frames of an animation should be drawn, depending on a maximum frame rate. If the
+ * adaptive mode is enabled, the frame rate is additionally lowered, when janky frames are detected
+ * or reported, or when the device is in power save mode, and raised again, once the animation runs
+ * smoothly.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class FramePacer {
+
+    /**
+     * The frame rate, which corresponds to the refresh rate of the display.
+     */
+    static final int UNLIMITED_FRAME_RATE = 0;
+
+    /**
+     * The frame rates, which are used by the adaptive mode, from the highest to the lowest one.
+     */
+    private static final int[] ADAPTIVE_FRAME_RATES = {UNLIMITED_FRAME_RATE, 60, 30, 20};
+
+    /**
+     * The frame rate, which is used by the adaptive mode, if the device is in power save mode.
+     */
+    private static final int POWER_SAVE_FRAME_RATE = 30;
+
+    /**
+     * The time in milliseconds, a frame may be delivered earlier than the target interval
+     * suggests. This compensates for frame times being rounded to milliseconds.
+     */
+    private static final float FRAME_TIME_TOLERANCE = 2;
+
+    /**
+     * The minimum time in milliseconds between two consecutive frames, which causes the latter to
+     * be considered janky.
+     */
+    private static final long JANK_THRESHOLD = 50;
+
+    /**
+     * The number of consecutive smooth frames, which must be drawn by the adaptive mode, before
+     * the frame rate is raised again.
+     */
+    private static final int RECOVERY_FRAME_COUNT = 120;
+
+    /**
+     * The maximum frame rate or {@link #UNLIMITED_FRAME_RATE}.
+     */
+    private int maxFrameRate;
+
+    /**
+     * True, if the adaptive mode is enabled, false otherwise.
+     */
+    private boolean adaptive;
+
+    /**
+     * True, if the device is in power save mode, false otherwise.
+     */
+    private boolean powerSaveMode;
+
+    /**
+     * The index of the frame rate, which is currently used by the adaptive mode.
+     */
+    private int adaptiveLevel;
+
+    /**
+     * The number of consecutive smooth frames, which have been drawn since the adaptive frame rate
+     * has last been changed.
+     */
+    private int smoothFrameCount;
+
+    /**
+     * The time of the previous frame in milliseconds or -1, if no frame has been delivered yet.
+     */
+    private long previousFrameTime;
+
+    /**
+     * The time of the frame, which has most recently been drawn, in milliseconds or -1, if no frame
+     * has been drawn yet.
+     */
+    private long lastDrawnFrameTime;
+
+    /**
+     * Returns the more restrictive of two frame rates.
+     *
+     * @param frameRate1
+     *         The first frame rate as an {@link Integer} value or {@link #UNLIMITED_FRAME_RATE}
+     * @param frameRate2
+     *         The second frame rate as an {@link Integer} value or {@link #UNLIMITED_FRAME_RATE}
+     * @return The more restrictive frame rate as an {@link Integer} value or {@link
+     * #UNLIMITED_FRAME_RATE}
+     */
+    private static int restrict(final int frameRate1, final int frameRate2) {
+        if (frameRate1 == UNLIMITED_FRAME_RATE) {
+            return frameRate2;
+        } else if (frameRate2 == UNLIMITED_FRAME_RATE) {
+            return frameRate1;
+        } else {
+            return Math.min(frameRate1, frameRate2);
+        }
+    }
+
+    /**
+     * Lowers the frame rate, which is used by the adaptive mode, by one level, if possible.
+     */
+    private void lowerAdaptiveFrameRate() {
+        adaptiveLevel = Math.min(adaptiveLevel + 1, ADAPTIVE_FRAME_RATES.length - 1);
+        smoothFrameCount = 0;
+    }
+
+    /**
+     * Raises the frame rate, which is used by the adaptive mode, by one level, if possible.
+     */
+    private void raiseAdaptiveFrameRate() {
+        adaptiveLevel = Math.max(adaptiveLevel - 1, 0);
+        smoothFrameCount = 0;
+    }
+
+    /**
+     * Creates a new pacer, which does not limit the frame rate.
+     */
+    FramePacer() {
+        this.maxFrameRate = UNLIMITED_FRAME_RATE;
+        this.adaptive = false;
+        this.powerSaveMode = false;
+        this.adaptiveLevel = 0;
+        reset();
+    }
+
+    /**
+     * Resets the pacer. This method should be called, when the animation is (re-)started.
+     */
+    void reset() {
+        this.previousFrameTime = -1;
+        this.lastDrawnFrameTime = -1;
+        this.smoothFrameCount = 0;
+    }
+
+    /**
+     * Sets the maximum frame rate.
+     *
+     * @param maxFrameRate
+     *         The maximum frame rate, which should be set, as an {@link Integer} value or {@link
+     *         #UNLIMITED_FRAME_RATE}
+     */
+    void setMaxFrameRate(final int maxFrameRate) {
+        this.maxFrameRate = maxFrameRate;
+    }
+
+    /**
+     * Sets, whether the adaptive mode should be enabled, or not.
+     *
+     * @param adaptive
+     *         True, if the adaptive mode should be enabled, false otherwise
+     */
+    void setAdaptive(final boolean adaptive) {
+        this.adaptive = adaptive;
+        this.adaptiveLevel = 0;
+        this.smoothFrameCount = 0;
+    }
+
+    /**
+     * Sets, whether the device is in power save mode, or not.
+     *
+     * @param powerSaveMode
+     *         True, if the device is in power save mode, false otherwise
+     */
+    void setPowerSaveMode(final boolean powerSaveMode) {
+        this.powerSaveMode = powerSaveMode;
+    }
+
+    /**
+     * Reports a janky frame. If the adaptive mode is enabled, this causes the frame rate to be
+     * lowered.
+     */
+    void reportJank() {
+        if (adaptive) {
+            lowerAdaptiveFrameRate();
+        }
+    }
+
+    /**
+     * Returns the frame rate, which is currently targeted, taking the maximum frame rate, as well
+     * as the adaptive mode, into account.
+     *
+     * @return The frame rate, which is currently targeted, as an {@link Integer} value or {@link
+     * #UNLIMITED_FRAME_RATE}
+     */
+    int getTargetFrameRate() {
+        int frameRate = maxFrameRate;
+
+        if (adaptive) {
+            frameRate = restrict(frameRate, ADAPTIVE_FRAME_RATES[adaptiveLevel]);
+
+            if (powerSaveMode) {
+                frameRate = restrict(frameRate, POWER_SAVE_FRAME_RATE);
+            }
+        }
+
+        return frameRate;
+    }
+
+    /**
+     * Returns, whether a specific frame should be drawn, or whether it should be skipped in order
+     * to meet the targeted frame rate.
+     *
+     * @param frameTime
+     *         The time of the frame in milliseconds as a {@link Long} value
+     * @return True, if the frame should be drawn, false otherwise
+     */
+    boolean shouldDraw(final long frameTime) {
+        if (adaptive && previousFrameTime != -1) {
+            if (frameTime - previousFrameTime >= JANK_THRESHOLD) {
+                lowerAdaptiveFrameRate();
+            } else if (++smoothFrameCount >= RECOVERY_FRAME_COUNT) {
+                raiseAdaptiveFrameRate();
+            }
+        }
+
+        previousFrameTime = frameTime;
+        int frameRate = getTargetFrameRate();
+
+        if (frameRate != UNLIMITED_FRAME_RATE && lastDrawnFrameTime != -1) {
+            float interval = 1000f / frameRate;
+
+            if (frameTime - lastDrawnFrameTime + FRAME_TIME_TOLERANCE < interval) {
+                return false;
+            }
+        }
+
+        lastDrawnFrameTime = frameTime;
+        return true;
+    }
+
+}
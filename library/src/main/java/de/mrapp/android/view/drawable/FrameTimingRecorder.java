@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Records the durations of the <code>draw</code> method of a {@link CircularProgressDrawable} and
+ * the intervals between consecutive frames of its animation into fixed-size histograms. Recording
+ * does not allocate any objects.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class FrameTimingRecorder {
+
+    /**
+     * The histogram of draw durations.
+     */
+    private final long[] drawDurationHistogram;
+
+    /**
+     * The histogram of frame intervals.
+     */
+    private final long[] frameIntervalHistogram;
+
+    /**
+     * The number of frames, which have been drawn.
+     */
+    private long drawCount;
+
+    /**
+     * The sum of all draw durations in nanoseconds.
+     */
+    private long totalDrawDuration;
+
+    /**
+     * The maximum draw duration in nanoseconds.
+     */
+    private long maxDrawDuration;
+
+    /**
+     * The number of frames, which have been dropped.
+     */
+    private long droppedFrameCount;
+
+    /**
+     * The number of frames, which have been late.
+     */
+    private long lateFrameCount;
+
+    /**
+     * The time of the previous frame in milliseconds or -1, if no frame has been recorded since
+     * the animation has been (re-)started.
+     */
+    private long previousFrameTime;
+
+    /**
+     * Returns the index of the bucket of a histogram, which corresponds to a specific value.
+     *
+     * @param value
+     *         The value as a {@link Long} value
+     * @param bucketSize
+     *         The width of a bucket as a {@link Long} value
+     * @return The index of the bucket as an {@link Integer} value
+     */
+    private static int getBucket(final long value, final long bucketSize) {
+        return (int) Math.min(Math.max(value, 0) / bucketSize, FrameTimingStats.BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Creates a new recorder.
+     */
+    FrameTimingRecorder() {
+        this.drawDurationHistogram = new long[FrameTimingStats.BUCKET_COUNT];
+        this.frameIntervalHistogram = new long[FrameTimingStats.BUCKET_COUNT];
+        reset();
+    }
+
+    /**
+     * Records the duration of a single invocation of the <code>draw</code> method.
+     *
+     * @param duration
+     *         The duration in nanoseconds as a {@link Long} value
+     */
+    void recordDraw(final long duration) {
+        drawDurationHistogram[getBucket(duration, FrameTimingStats.DRAW_DURATION_BUCKET_SIZE)]++;
+        drawCount++;
+        totalDrawDuration += duration;
+        maxDrawDuration = Math.max(maxDrawDuration, duration);
+    }
+
+    /**
+     * Records a frame of the animation.
+     *
+     * @param frameTime
+     *         The time of the frame in milliseconds as a {@link Long} value
+     * @param targetFrameRate
+     *         The frame rate, which is targeted, as an {@link Integer} value or {@link
+     *         FramePacer#UNLIMITED_FRAME_RATE}
+     * @param displayFrameInterval
+     *         The interval between two frames in milliseconds, which corresponds to the refresh
+     *         rate of the display, as a {@link Float} value
+     */
+    void recordFrame(final long frameTime, final int targetFrameRate,
+                     final float displayFrameInterval) {
+        if (previousFrameTime != -1) {
+            long interval = frameTime - previousFrameTime;
+            float expectedInterval = targetFrameRate == FramePacer.UNLIMITED_FRAME_RATE ?
+                    displayFrameInterval :
+                    Math.max(1000f / targetFrameRate, displayFrameInterval);
+            frameIntervalHistogram[getBucket(interval,
+                    FrameTimingStats.FRAME_INTERVAL_BUCKET_SIZE)]++;
+
+            if (interval > expectedInterval * 1.5f) {
+                lateFrameCount++;
+                droppedFrameCount += Math.round(interval / expectedInterval) - 1;
+            }
+        }
+
+        previousFrameTime = frameTime;
+    }
+
+    /**
+     * Notifies the recorder, that the animation has been (re-)started. This prevents the time,
+     * while the animation has been paused, from being recorded as a frame interval.
+     */
+    void restart() {
+        previousFrameTime = -1;
+    }
+
+    /**
+     * Resets all statistics, which have been recorded so far.
+     */
+    void reset() {
+        for (int i = 0; i < FrameTimingStats.BUCKET_COUNT; i++) {
+            drawDurationHistogram[i] = 0;
+            frameIntervalHistogram[i] = 0;
+        }
+
+        drawCount = 0;
+        totalDrawDuration = 0;
+        maxDrawDuration = 0;
+        droppedFrameCount = 0;
+        lateFrameCount = 0;
+        previousFrameTime = -1;
+    }
+
+    /**
+     * Returns a snapshot of the statistics, which have been recorded so far.
+     *
+     * @return The snapshot as an instance of the class {@link FrameTimingStats}. The snapshot may
+     * not be null
+     */
+    @NonNull
+    FrameTimingStats getSnapshot() {
+        return new FrameTimingStats(drawDurationHistogram, frameIntervalHistogram, drawCount,
+                totalDrawDuration, maxDrawDuration, droppedFrameCount, lateFrameCount);
+    }
+
+}
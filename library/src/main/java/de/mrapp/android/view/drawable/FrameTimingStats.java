@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable snapshot of the frame timing statistics, which have been recorded by a {@link
+ * CircularProgressDrawable}. The statistics consist of histograms of the durations of the
+ * drawable's <code>draw</code> method and of the intervals between consecutive frames, as well as
+ * of the number of frames, which have been dropped or have been late.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+public final class FrameTimingStats {
+
+    /**
+     * The width of a bucket of the histogram of draw durations in nanoseconds.
+     */
+    public static final long DRAW_DURATION_BUCKET_SIZE = 50000L;
+
+    /**
+     * The width of a bucket of the histogram of frame intervals in milliseconds.
+     */
+    public static final long FRAME_INTERVAL_BUCKET_SIZE = 1L;
+
+    /**
+     * The number of buckets of each histogram. The last bucket contains all values, which exceed
+     * the range of the histogram.
+     */
+    public static final int BUCKET_COUNT = 64;
+
+    /**
+     * The histogram of draw durations.
+     */
+    private final long[] drawDurationHistogram;
+
+    /**
+     * The histogram of frame intervals.
+     */
+    private final long[] frameIntervalHistogram;
+
+    /**
+     * The number of frames, which have been drawn.
+     */
+    private final long drawCount;
+
+    /**
+     * The sum of all draw durations in nanoseconds.
+     */
+    private final long totalDrawDuration;
+
+    /**
+     * The maximum draw duration in nanoseconds.
+     */
+    private final long maxDrawDuration;
+
+    /**
+     * The number of frames, which have been dropped.
+     */
+    private final long droppedFrameCount;
+
+    /**
+     * The number of frames, which have been late.
+     */
+    private final long lateFrameCount;
+
+    /**
+     * Creates a new snapshot of frame timing statistics.
+     *
+     * @param drawDurationHistogram
+     *         The histogram of draw durations as a {@link Long} array. The array is copied
+     * @param frameIntervalHistogram
+     *         The histogram of frame intervals as a {@link Long} array. The array is copied
+     * @param drawCount
+     *         The number of frames, which have been drawn, as a {@link Long} value
+     * @param totalDrawDuration
+     *         The sum of all draw durations in nanoseconds as a {@link Long} value
+     * @param maxDrawDuration
+     *         The maximum draw duration in nanoseconds as a {@link Long} value
+     * @param droppedFrameCount
+     *         The number of frames, which have been dropped, as a {@link Long} value
+     * @param lateFrameCount
+     *         The number of frames, which have been late, as a {@link Long} value
+     */
+    FrameTimingStats(@NonNull final long[] drawDurationHistogram,
+                     @NonNull final long[] frameIntervalHistogram, final long drawCount,
+                     final long totalDrawDuration, final long maxDrawDuration,
+                     final long droppedFrameCount, final long lateFrameCount) {
+        this.drawDurationHistogram = drawDurationHistogram.clone();
+        this.frameIntervalHistogram = frameIntervalHistogram.clone();
+        this.drawCount = drawCount;
+        this.totalDrawDuration = totalDrawDuration;
+        this.maxDrawDuration = maxDrawDuration;
+        this.droppedFrameCount = droppedFrameCount;
+        this.lateFrameCount = lateFrameCount;
+    }
+
+    /**
+     * Returns the histogram of draw durations. The bucket at index <code>i</code> contains the
+     * number of frames, whose draw duration has been at least <code>i * {@link
+     * #DRAW_DURATION_BUCKET_SIZE}</code> nanoseconds.
+     *
+     * @return A copy of the histogram of draw durations as a {@link Long} array
+     */
+    @NonNull
+    public long[] getDrawDurationHistogram() {
+        return drawDurationHistogram.clone();
+    }
+
+    /**
+     * Returns the histogram of frame intervals. The bucket at index <code>i</code> contains the
+     * number of frames, whose interval to the previous frame has been at least <code>i * {@link
+     * #FRAME_INTERVAL_BUCKET_SIZE}</code> milliseconds.
+     *
+     * @return A copy of the histogram of frame intervals as a {@link Long} array
+     */
+    @NonNull
+    public long[] getFrameIntervalHistogram() {
+        return frameIntervalHistogram.clone();
+    }
+
+    /**
+     * Returns the number of frames, which have been drawn.
+     *
+     * @return The number of frames, which have been drawn, as a {@link Long} value
+     */
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * Returns the average draw duration.
+     *
+     * @return The average draw duration in nanoseconds as a {@link Long} value or 0, if no frames
+     * have been drawn
+     */
+    public long getAverageDrawDuration() {
+        return drawCount > 0 ? totalDrawDuration / drawCount : 0;
+    }
+
+    /**
+     * Returns the maximum draw duration.
+     *
+     * @return The maximum draw duration in nanoseconds as a {@link Long} value
+     */
+    public long getMaxDrawDuration() {
+        return maxDrawDuration;
+    }
+
+    /**
+     * Returns the number of frames, which have been dropped, i.e. the estimated number of frames,
+     * which should have been drawn according to the targeted frame rate and the refresh rate of
+     * the display, but have been skipped, because the previous frame has been delivered too late.
+     *
+     * @return The number of frames, which have been dropped, as a {@link Long} value
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * Returns the number of frames, which have been late, i.e. whose interval to the previous
+     * frame has exceeded the expected interval by more than half of it. The expected interval
+     * corresponds to the targeted frame rate, but is never shorter than the interval, which
+     * corresponds to the refresh rate of the display.
+     *
+     * @return The number of frames, which have been late, as a {@link Long} value
+     */
+    public long getLateFrameCount() {
+        return lateFrameCount;
+    }
+
+}
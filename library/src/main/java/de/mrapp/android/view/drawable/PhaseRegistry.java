@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import de.mrapp.util.Condition;
+
+/**
+ * A registry, which stores the start times of the animations of {@link CircularProgressDrawable}s
+ * by logical keys, e.g. the identifier of a task, whose progress is shown. Drawables, which use the
+ * same key, share the same start time and are therefore animated in phase. This allows views, which
+ * are recycled and bound to the same task again, to continue the animation without a visible
+ * restart.
+ * <p>
+ * The registry is bounded. If it is full, the least recently used key is removed. The registry
+ * must only be accessed from the UI thread.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class PhaseRegistry {
+
+    /**
+     * The maximum number of keys, which are stored by the registry.
+     */
+    private static final int MAX_SIZE = 128;
+
+    /**
+     * The single instance of the class.
+     */
+    private static PhaseRegistry instance;
+
+    /**
+     * A map, which contains the start times of the animations, which have been registered, by
+     * their keys.
+     */
+    private final Map<Object, Long> startTimes;
+
+    /**
+     * Creates a new registry.
+     */
+    private PhaseRegistry() {
+        this.startTimes = new LinkedHashMap<Object, Long>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Long> eldest) {
+                return size() > MAX_SIZE;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the single instance of the class.
+     *
+     * @return The single instance of the class as an instance of the class {@link PhaseRegistry}.
+     * The instance may not be null
+     */
+    @NonNull
+    static PhaseRegistry getInstance() {
+        if (instance == null) {
+            instance = new PhaseRegistry();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the start time, which corresponds to a specific key. If no start time has been
+     * registered for the key yet, the given start time is registered.
+     *
+     * @param key
+     *         The key, whose start time should be returned, as an instance of the class {@link
+     *         Object}. The key may not be null
+     * @param startTime
+     *         The start time, which should be registered, if no start time has been registered for
+     *         the key yet, in milliseconds as a {@link Long} value
+     * @return The start time, which corresponds to the given key, in milliseconds as a {@link
+     * Long} value
+     */
+    long obtainStartTime(@NonNull final Object key, final long startTime) {
+        Condition.INSTANCE.ensureNotNull(key, "The key may not be null");
+        Long registeredStartTime = startTimes.get(key);
+
+        if (registeredStartTime == null) {
+            startTimes.put(key, startTime);
+            return startTime;
+        }
+
+        return registeredStartTime;
+    }
+
+    /**
+     * Removes the start time, which corresponds to a specific key.
+     *
+     * @param key
+     *         The key, whose start time should be removed, as an instance of the class {@link
+     *         Object}. The key may not be null
+     */
+    void remove(@NonNull final Object key) {
+        Condition.INSTANCE.ensureNotNull(key, "The key may not be null");
+        startTimes.remove(key);
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+/**
+ * Computes the bounds of the arc, which is drawn by a {@link CircularProgressDrawable}, from the
+ * bounds of the drawable and the thickness of the arc. The arc is centered within the bounds of
+ * the drawable and inset by half of the thickness, which causes the stroked ring to fit into the
+ * largest square, which is contained by the bounds.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class RingGeometry {
+
+    /**
+     * The left coordinate of the arc's bounds.
+     */
+    private float left;
+
+    /**
+     * The top coordinate of the arc's bounds.
+     */
+    private float top;
+
+    /**
+     * The right coordinate of the arc's bounds.
+     */
+    private float right;
+
+    /**
+     * The bottom coordinate of the arc's bounds.
+     */
+    private float bottom;
+
+    /**
+     * Updates the bounds of the arc, depending on the bounds of the drawable and the thickness.
+     *
+     * @param left
+     *         The left coordinate of the drawable's bounds as an {@link Integer} value
+     * @param top
+     *         The top coordinate of the drawable's bounds as an {@link Integer} value
+     * @param right
+     *         The right coordinate of the drawable's bounds as an {@link Integer} value
+     * @param bottom
+     *         The bottom coordinate of the drawable's bounds as an {@link Integer} value
+     * @param thickness
+     *         The thickness of the arc in pixels as an {@link Integer} value
+     */
+    void update(final int left, final int top, final int right, final int bottom,
+                final int thickness) {
+        int width = right - left;
+        int height = bottom - top;
+        float inset = thickness / 2.0f + 0.5f;
+
+        if (width < height) {
+            int diff = height - width;
+            this.left = left + inset;
+            this.right = right - inset;
+            this.top = top + diff / 2.0f + inset;
+            this.bottom = bottom - diff / 2.0f - inset;
+        } else {
+            int diff = width - height;
+            this.left = left + diff / 2.0f + inset;
+            this.right = right - diff / 2.0f - inset;
+            this.top = top + inset;
+            this.bottom = bottom - inset;
+        }
+    }
+
+    /**
+     * Returns the left coordinate of the arc's bounds.
+     *
+     * @return The left coordinate of the arc's bounds as a {@link Float} value
+     */
+    float getLeft() {
+        return left;
+    }
+
+    /**
+     * Returns the top coordinate of the arc's bounds.
+     *
+     * @return The top coordinate of the arc's bounds as a {@link Float} value
+     */
+    float getTop() {
+        return top;
+    }
+
+    /**
+     * Returns the right coordinate of the arc's bounds.
+     *
+     * @return The right coordinate of the arc's bounds as a {@link Float} value
+     */
+    float getRight() {
+        return right;
+    }
+
+    /**
+     * Returns the bottom coordinate of the arc's bounds.
+     *
+     * @return The bottom coordinate of the arc's bounds as a {@link Float} value
+     */
+    float getBottom() {
+        return bottom;
+    }
+
+}
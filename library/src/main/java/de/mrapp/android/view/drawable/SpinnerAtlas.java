@@ -0,0 +1,384 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import de.mrapp.util.Condition;
+
+/**
+ * A bitmap, which contains pre-rendered frames of a full cycle of the animation of a {@link
+ * CircularProgressDrawable}. Each frame is rendered into a cell of the bitmap with a start angle of
+ * 0, which means that the arc must be rotated when drawing. As the frames are rendered into a
+ * bitmap with the config {@link Bitmap.Config#ALPHA_8}, the color is applied when drawing.
+ * <p>
+ * Atlases are shared between all drawables with the same thickness, size and number of frames by
+ * using a bounded cache. Atlases, which would exceed the maximum size of the cache on their own,
+ * are not rendered at all. When an atlas is removed from the cache, its bitmap is recycled, which
+ * ensures that the cache actually bounds the memory, which is used by all atlases. Drawables, which
+ * still refer to such an atlas, must not use it anymore.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class SpinnerAtlas {
+
+    /**
+     * The key, which is used to cache atlases.
+     */
+    private static final class Key {
+
+        /**
+         * The thickness of the arc in pixels.
+         */
+        private final int thickness;
+
+        /**
+         * The width and height of a single frame in pixels.
+         */
+        private final int size;
+
+        /**
+         * The number of frames.
+         */
+        private final int frameCount;
+
+        /**
+         * Creates a new key.
+         *
+         * @param thickness
+         *         The thickness of the arc in pixels as an {@link Integer} value
+         * @param size
+         *         The width and height of a single frame in pixels as an {@link Integer} value
+         * @param frameCount
+         *         The number of frames as an {@link Integer} value
+         */
+        Key(final int thickness, final int size, final int frameCount) {
+            this.thickness = thickness;
+            this.size = size;
+            this.frameCount = frameCount;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return thickness == other.thickness && size == other.size &&
+                    frameCount == other.frameCount;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + thickness;
+            result = prime * result + size;
+            result = prime * result + frameCount;
+            return result;
+        }
+
+    }
+
+    /**
+     * The default maximum size of the cache in bytes.
+     */
+    private static final int DEFAULT_MAX_CACHE_SIZE = 2 * 1024 * 1024;
+
+    /**
+     * The cache, which contains the atlases, which have already been rendered.
+     */
+    private static LruCache<Key, SpinnerAtlas> cache;
+
+    /**
+     * The maximum size of the cache in bytes.
+     */
+    private static int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+    /**
+     * The bitmap, which contains the frames.
+     */
+    private final Bitmap bitmap;
+
+    /**
+     * The width and height of a single frame in pixels.
+     */
+    private final int size;
+
+    /**
+     * The number of frames.
+     */
+    private final int frameCount;
+
+    /**
+     * The number of columns of the grid, the frames are arranged in.
+     */
+    private final int columnCount;
+
+    /**
+     * True, if the atlas has been removed from the cache and its bitmap has been recycled, false
+     * otherwise.
+     */
+    private boolean released;
+
+    /**
+     * Returns the cache, which contains the atlases, which have already been rendered. The cache
+     * is created, if necessary.
+     *
+     * @return The cache as an instance of the class {@link LruCache}. The cache may not be null
+     */
+    @NonNull
+    private static LruCache<Key, SpinnerAtlas> getCache() {
+        if (cache == null) {
+            cache = new LruCache<Key, SpinnerAtlas>(maxCacheSize) {
+
+                @Override
+                protected int sizeOf(final Key key, final SpinnerAtlas value) {
+                    return value.getByteCount();
+                }
+
+                @Override
+                protected void entryRemoved(final boolean evicted, final Key key,
+                                            final SpinnerAtlas oldValue,
+                                            final SpinnerAtlas newValue) {
+                    if (oldValue != newValue) {
+                        oldValue.release();
+                    }
+                }
+
+            };
+        }
+
+        return cache;
+    }
+
+    /**
+     * Returns the number of columns of the grid, a specific number of frames is arranged in.
+     *
+     * @param frameCount
+     *         The number of frames as an {@link Integer} value
+     * @return The number of columns as an {@link Integer} value
+     */
+    private static int getColumnCount(final int frameCount) {
+        return (int) Math.ceil(Math.sqrt(frameCount));
+    }
+
+    /**
+     * Returns the number of rows of the grid, a specific number of frames is arranged in.
+     *
+     * @param frameCount
+     *         The number of frames as an {@link Integer} value
+     * @return The number of rows as an {@link Integer} value
+     */
+    private static int getRowCount(final int frameCount) {
+        return (int) Math.ceil(frameCount / (double) getColumnCount(frameCount));
+    }
+
+    /**
+     * Returns the number of bytes, which would be used by the bitmap of an atlas with a specific
+     * size and number of frames. As the rows of a bitmap may be padded, the rows are assumed to be
+     * aligned to 4 bytes.
+     *
+     * @param size
+     *         The width and height of a single frame in pixels as an {@link Integer} value
+     * @param frameCount
+     *         The number of frames as an {@link Integer} value
+     * @return The number of bytes as a {@link Long} value
+     */
+    private static long getByteCount(final int size, final int frameCount) {
+        long rowBytes = ((long) getColumnCount(frameCount) * size + 3) & ~3L;
+        return rowBytes * getRowCount(frameCount) * size;
+    }
+
+    /**
+     * Releases the atlas, when it has been removed from the cache, by recycling its bitmap.
+     */
+    private void release() {
+        released = true;
+        bitmap.recycle();
+    }
+
+    /**
+     * Renders all frames into the atlas' bitmap.
+     *
+     * @param thickness
+     *         The thickness of the arc in pixels as an {@link Integer} value
+     */
+    private void render(final int thickness) {
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(thickness);
+        SpinnerGeometry geometry = new SpinnerGeometry();
+        RectF arcBounds = new RectF();
+        float inset = thickness / 2.0f + 0.5f;
+
+        for (int i = 0; i < frameCount; i++) {
+            geometry.update(i * SpinnerGeometry.CYCLE_DURATION / frameCount);
+            int left = (i % columnCount) * size;
+            int top = (i / columnCount) * size;
+            arcBounds.set(left + inset, top + inset, left + size - inset, top + size - inset);
+            canvas.drawArc(arcBounds, 0, geometry.getSweepAngle(), false, paint);
+        }
+    }
+
+    /**
+     * Creates a new atlas and renders its frames.
+     *
+     * @param thickness
+     *         The thickness of the arc in pixels as an {@link Integer} value
+     * @param size
+     *         The width and height of a single frame in pixels as an {@link Integer} value
+     * @param frameCount
+     *         The number of frames as an {@link Integer} value
+     */
+    private SpinnerAtlas(final int thickness, final int size, final int frameCount) {
+        this.size = size;
+        this.frameCount = frameCount;
+        this.columnCount = getColumnCount(frameCount);
+        this.released = false;
+        int rowCount = getRowCount(frameCount);
+        this.bitmap =
+                Bitmap.createBitmap(columnCount * size, rowCount * size, Bitmap.Config.ALPHA_8);
+        render(thickness);
+    }
+
+    /**
+     * Returns the atlas, which corresponds to a specific thickness, size and number of frames.
+     * If no such atlas is contained by the cache, it is rendered and added to the cache. If the
+     * atlas would exceed the maximum size of the cache on its own, it would be evicted immediately
+     * and could not be shared. In such case, no atlas is rendered.
+     *
+     * @param thickness
+     *         The thickness of the arc in pixels as an {@link Integer} value. The thickness must be
+     *         at least 1
+     * @param size
+     *         The width and height of a single frame in pixels as an {@link Integer} value. The
+     *         size must be at least 1
+     * @param frameCount
+     *         The number of frames as an {@link Integer} value. The number of frames must be at
+     *         least 1
+     * @return The atlas as an instance of the class {@link SpinnerAtlas} or null, if the atlas
+     * would exceed the maximum size of the cache
+     */
+    @Nullable
+    static SpinnerAtlas obtain(final int thickness, final int size, final int frameCount) {
+        Condition.INSTANCE.ensureAtLeast(thickness, 1, "The thickness must be at least 1");
+        Condition.INSTANCE.ensureAtLeast(size, 1, "The size must be at least 1");
+        Condition.INSTANCE.ensureAtLeast(frameCount, 1, "The frame count must be at least 1");
+        LruCache<Key, SpinnerAtlas> cache = getCache();
+
+        if (getByteCount(size, frameCount) > cache.maxSize()) {
+            return null;
+        }
+
+        Key key = new Key(thickness, size, frameCount);
+        SpinnerAtlas atlas = cache.get(key);
+
+        if (atlas == null) {
+            atlas = new SpinnerAtlas(thickness, size, frameCount);
+            cache.put(key, atlas);
+        }
+
+        return atlas;
+    }
+
+    /**
+     * Sets the maximum size of the cache, which is shared by all drawables.
+     *
+     * @param maxSize
+     *         The maximum size, which should be set, in bytes as an {@link Integer} value. The
+     *         maximum size must be at least 1
+     */
+    static void setMaxCacheSize(final int maxSize) {
+        Condition.INSTANCE.ensureAtLeast(maxSize, 1, "The maximum size must be at least 1");
+        maxCacheSize = maxSize;
+
+        if (cache != null) {
+            cache.resize(maxSize);
+        }
+    }
+
+    /**
+     * Returns, whether the atlas has been removed from the cache and its bitmap has been recycled,
+     * or not. A released atlas must not be drawn anymore.
+     *
+     * @return True, if the atlas has been released, false otherwise
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Returns the number of bytes, which are used by the atlas' bitmap.
+     *
+     * @return The number of bytes, which are used by the atlas' bitmap, as an {@link Integer}
+     * value
+     */
+    int getByteCount() {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * Returns the index of the frame, which corresponds to a specific fraction of the animation's
+     * cycle.
+     *
+     * @param cycleFraction
+     *         The fraction of the cycle as a {@link Float} value between 0 (inclusive) and 1
+     *         (exclusive)
+     * @return The index of the frame as an {@link Integer} value
+     */
+    int getFrameIndex(final float cycleFraction) {
+        return Math.min((int) (cycleFraction * frameCount), frameCount - 1);
+    }
+
+    /**
+     * Draws a specific frame.
+     *
+     * @param canvas
+     *         The canvas, the frame should be drawn to, as an instance of the class {@link
+     *         Canvas}. The canvas may not be null
+     * @param index
+     *         The index of the frame, which should be drawn, as an {@link Integer} value
+     * @param source
+     *         The rectangle, which should be used to store the frame's bounds within the atlas, as
+     *         an instance of the class {@link Rect}. The rectangle may not be null
+     * @param destination
+     *         The bounds, the frame should be drawn to, as an instance of the class {@link Rect}.
+     *         The bounds may not be null
+     * @param paint
+     *         The paint, which should be used to draw the frame, as an instance of the class {@link
+     *         Paint}. The paint may not be null
+     */
+    void draw(@NonNull final Canvas canvas, final int index, @NonNull final Rect source,
+              @NonNull final Rect destination, @NonNull final Paint paint) {
+        int left = (index % columnCount) * size;
+        int top = (index / columnCount) * size;
+        source.set(left, top, left + size, top + size);
+        canvas.drawBitmap(bitmap, source, destination, paint);
+    }
+
+}
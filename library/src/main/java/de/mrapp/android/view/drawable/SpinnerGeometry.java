@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+/**
+ * Computes the arc, which is drawn by a {@link CircularProgressDrawable}, from the time, which has
+ * passed since the animation has been started. The arc only depends on the given time, not on any
+ * previous invocations, which means that skipped frames do not cause the animation to drift.
+ * <p>
+ * A single cycle of the animation is encoded by keyframes for the tail and the head of the arc.
+ * During the first half of a cycle, the tail catches up with the head, which causes the arc to
+ * shrink. During the second half, the head moves away from the tail, which causes the arc to grow.
+ * As both, the tail and the head, advance by the same angle per cycle, consecutive cycles are
+ * appended seamlessly. Additionally, the whole arc is rotated at a constant speed.
+ * <p>
+ * No animators or interpolators of the Android framework are used, which allows to verify the
+ * keyframes by using plain unit tests.
+ *
+ * @author Michael Rapp
+ * @since 3.1.0
+ */
+final class SpinnerGeometry {
+
+    /**
+     * The duration of the angle animation in milliseconds.
+     */
+    static final long ANGLE_ANIMATION_DURATION = 2000L;
+
+    /**
+     * The duration of a full cycle, which consists of the arc shrinking and growing, in
+     * milliseconds. After each cycle, the shape of the arc is repeated.
+     */
+    static final long CYCLE_DURATION = 1200L;
+
+    /**
+     * The minimum angle of the sweep animation.
+     */
+    static final int MIN_SWEEP_ANGLE = 30;
+
+    /**
+     * The number of degrees in a circle.
+     */
+    static final int MAX_DEGREES = 360;
+
+    /**
+     * The fractions of a cycle, which correspond to the keyframes.
+     */
+    private static final float[] KEYFRAME_FRACTIONS = {0, 0.5f, 1};
+
+    /**
+     * The angles of the arc's tail at each keyframe.
+     */
+    private static final float[] TAIL_KEYFRAMES =
+            {0, MAX_DEGREES - MIN_SWEEP_ANGLE * 2, MAX_DEGREES - MIN_SWEEP_ANGLE * 2};
+
+    /**
+     * The angles of the arc's head at each keyframe.
+     */
+    private static final float[] HEAD_KEYFRAMES =
+            {MAX_DEGREES - MIN_SWEEP_ANGLE, MAX_DEGREES - MIN_SWEEP_ANGLE,
+                    MAX_DEGREES * 2 - MIN_SWEEP_ANGLE * 3};
+
+    /**
+     * The angle, the tail and the head of the arc advance by during each cycle.
+     */
+    private static final int CYCLE_ADVANCE = MAX_DEGREES - MIN_SWEEP_ANGLE * 2;
+
+    /**
+     * The angle, the arc starts at.
+     */
+    private float startAngle;
+
+    /**
+     * The angle, which is covered by the arc.
+     */
+    private float sweepAngle;
+
+    /**
+     * The index of the current cycle.
+     */
+    private long cycle;
+
+    /**
+     * The fraction of the current cycle, which has already passed.
+     */
+    private float cycleFraction;
+
+    /**
+     * Applies a decelerating interpolation to a specific fraction. This corresponds to the
+     * interpolation, which is provided by the class
+     * <code>android.view.animation.DecelerateInterpolator</code> using its default factor.
+     *
+     * @param fraction
+     *         The fraction, which should be interpolated, as a {@link Float} value between 0 and 1
+     * @return The interpolated fraction as a {@link Float} value between 0 and 1
+     */
+    private static float decelerate(final float fraction) {
+        float inverse = 1.0f - fraction;
+        return 1.0f - inverse * inverse;
+    }
+
+    /**
+     * Returns the value, which corresponds to a specific fraction of a cycle, by interpolating
+     * between the surrounding keyframes.
+     *
+     * @param keyframes
+     *         An array, which contains the values of all keyframes, as a {@link Float} array. The
+     *         array must have the same length as {@link #KEYFRAME_FRACTIONS}
+     * @param fraction
+     *         The fraction of the cycle as a {@link Float} value between 0 (inclusive) and 1
+     *         (exclusive)
+     * @return The value, which corresponds to the given fraction, as a {@link Float} value
+     */
+    private static float evaluate(final float[] keyframes, final float fraction) {
+        int segment = 0;
+
+        while (segment < KEYFRAME_FRACTIONS.length - 2 &&
+                fraction >= KEYFRAME_FRACTIONS[segment + 1]) {
+            segment++;
+        }
+
+        float segmentStart = KEYFRAME_FRACTIONS[segment];
+        float segmentFraction =
+                (fraction - segmentStart) / (KEYFRAME_FRACTIONS[segment + 1] - segmentStart);
+        float startValue = keyframes[segment];
+        return startValue + (keyframes[segment + 1] - startValue) * decelerate(segmentFraction);
+    }
+
+    /**
+     * Creates a new geometry, which corresponds to the beginning of the animation.
+     */
+    SpinnerGeometry() {
+        update(0);
+    }
+
+    /**
+     * Updates the arc, depending on the time, which has passed since the animation has been
+     * started.
+     *
+     * @param elapsedTime
+     *         The time, which has passed since the animation has been started, in milliseconds as
+     *         a {@link Long} value. The time must be at least 0
+     */
+    void update(final long elapsedTime) {
+        float angleFraction =
+                (elapsedTime % ANGLE_ANIMATION_DURATION) / (float) ANGLE_ANIMATION_DURATION;
+        float globalAngle = angleFraction * MAX_DEGREES;
+        cycle = elapsedTime / CYCLE_DURATION;
+        cycleFraction = (elapsedTime % CYCLE_DURATION) / (float) CYCLE_DURATION;
+        float tail = evaluate(TAIL_KEYFRAMES, cycleFraction);
+        float head = evaluate(HEAD_KEYFRAMES, cycleFraction);
+        long cycleOffset = (cycle % MAX_DEGREES) * CYCLE_ADVANCE % MAX_DEGREES;
+        startAngle = globalAngle + cycleOffset + tail;
+        sweepAngle = head - tail;
+    }
+
+    /**
+     * Returns the angle, the arc starts at.
+     *
+     * @return The angle, the arc starts at, in degrees as a {@link Float} value
+     */
+    float getStartAngle() {
+        return startAngle;
+    }
+
+    /**
+     * Returns the angle, which is covered by the arc.
+     *
+     * @return The angle, which is covered by the arc, in degrees as a {@link Float} value
+     */
+    float getSweepAngle() {
+        return sweepAngle;
+    }
+
+    /**
+     * Returns the index of the current cycle, starting at 0, when the animation has been started.
+     *
+     * @return The index of the current cycle as a {@link Long} value
+     */
+    long getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Returns the fraction of the current cycle, which has already passed. The sweep angle only
+     * depends on this fraction, while the start angle additionally rotates the arc.
+     *
+     * @return The fraction of the current cycle, which has already passed, as a {@link Float}
+     * value between 0 (inclusive) and 1 (exclusive)
+     */
+    float getCycleFraction() {
+        return cycleFraction;
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowDrawable;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests, whether dispatching frames to instances of the class {@link CircularProgressDrawable} by
+ * using the {@link FrameClock} and drawing them does not allocate any objects.
+ *
+ * @author Michael Rapp
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P, manifest = Config.NONE,
+        shadows = CircularProgressDrawableAllocationTest.ShadowInvalidatingDrawable.class)
+public class CircularProgressDrawableAllocationTest {
+
+    /**
+     * A shadow of the class {@link Drawable}, which notifies the drawable's callback, when the
+     * drawable is invalidated, like the framework does. Unlike the default shadow, it does not use
+     * reflection, which would allocate objects.
+     */
+    @Implements(Drawable.class)
+    public static class ShadowInvalidatingDrawable extends ShadowDrawable {
+
+        /**
+         * The drawable, which is shadowed.
+         */
+        @RealObject
+        private Drawable realDrawable;
+
+        @Implementation
+        @Override
+        protected void invalidateSelf() {
+            Drawable.Callback callback = realDrawable.getCallback();
+
+            if (callback != null) {
+                callback.invalidateDrawable(realDrawable);
+            }
+        }
+
+    }
+
+    /**
+     * A callback, which counts, how many times a drawable has been invalidated.
+     */
+    private static final class CountingCallback implements Drawable.Callback {
+
+        /**
+         * The number of invalidations.
+         */
+        private int count;
+
+        @Override
+        public void invalidateDrawable(final Drawable who) {
+            count++;
+        }
+
+        @Override
+        public void scheduleDrawable(final Drawable who, final Runnable what, final long when) {
+
+        }
+
+        @Override
+        public void unscheduleDrawable(final Drawable who, final Runnable what) {
+
+        }
+
+    }
+
+    /**
+     * A canvas, which only counts the drawing operations, which are performed by a drawable,
+     * instead of rendering them. This ensures, that only the allocations of the drawable are
+     * measured.
+     */
+    private static final class CountingCanvas extends Canvas {
+
+        /**
+         * The number of drawing operations, which have been performed.
+         */
+        private int count;
+
+        @Override
+        public void drawArc(final RectF oval, final float startAngle, final float sweepAngle,
+                            final boolean useCenter, final Paint paint) {
+            count++;
+        }
+
+        @Override
+        public void drawBitmap(final Bitmap bitmap, final Rect src, final Rect dst,
+                               final Paint paint) {
+            count++;
+        }
+
+    }
+
+    /**
+     * The number of drawables, which are animated simultaneously.
+     */
+    private static final int DRAWABLE_COUNT = 16;
+
+    /**
+     * The number of frames, which are dispatched before the allocations are measured.
+     */
+    private static final int WARM_UP_FRAME_COUNT = 2000;
+
+    /**
+     * The number of frames, whose allocations are measured.
+     */
+    private static final int FRAME_COUNT = 10000;
+
+    /**
+     * The time between two consecutive frames in milliseconds.
+     */
+    private static final long FRAME_INTERVAL = 16;
+
+    /**
+     * The width and height of the drawables in pixels.
+     */
+    private static final int SIZE = 96;
+
+    /**
+     * The drawables, which are animated by the test.
+     */
+    private CircularProgressDrawable[] drawables;
+
+    /**
+     * The callback, which is used by all drawables.
+     */
+    private CountingCallback callback;
+
+    /**
+     * Returns the number of bytes, which have been allocated by the current thread so far.
+     *
+     * @return The number of bytes, which have been allocated by the current thread so far, as a
+     * {@link Long} value
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Creates and starts the drawables, which are animated by the test.
+     *
+     * @param atlasEnabled
+     *         True, if the atlas mode should be enabled, false otherwise
+     * @param gradientEnabled
+     *         True, if the gradient mode should be enabled, false otherwise
+     * @param colors
+     *         An array, which contains the colors, the drawables should cycle through, as an
+     *         {@link Integer} array or null, if a single color should be used
+     */
+    private void startDrawables(final boolean atlasEnabled, final boolean gradientEnabled,
+                                final int[] colors) {
+        drawables = new CircularProgressDrawable[DRAWABLE_COUNT];
+        callback = new CountingCallback();
+
+        for (int i = 0; i < DRAWABLE_COUNT; i++) {
+            CircularProgressDrawable drawable = new CircularProgressDrawable(Color.BLUE, 4);
+            drawable.setAtlasEnabled(atlasEnabled);
+            drawable.setGradientEnabled(gradientEnabled);
+            drawable.setColors(colors);
+            drawable.setBounds(0, 0, SIZE, SIZE);
+            drawable.setCallback(callback);
+            drawable.start();
+            drawables[i] = drawable;
+        }
+    }
+
+    /**
+     * Dispatches a specific number of frames by using the {@link FrameClock} and draws all
+     * drawables after each frame.
+     *
+     * @param canvas
+     *         The canvas, the drawables should be drawn to, as an instance of the class {@link
+     *         Canvas}. The canvas may not be null
+     * @param firstFrame
+     *         The index of the first frame, which should be dispatched, as an {@link Integer}
+     *         value
+     * @param frameCount
+     *         The number of frames, which should be dispatched, as an {@link Integer} value
+     */
+    private void runFrames(final Canvas canvas, final int firstFrame, final int frameCount) {
+        FrameClock frameClock = FrameClock.getInstance();
+        long startTime = frameClock.getFrameTime();
+
+        for (int i = firstFrame; i < firstFrame + frameCount; i++) {
+            frameClock.dispatchFrame(startTime + i * FRAME_INTERVAL);
+
+            for (CircularProgressDrawable drawable : drawables) {
+                drawable.draw(canvas);
+            }
+        }
+    }
+
+    /**
+     * Stops and restarts all drawables a specific number of times.
+     *
+     * @param count
+     *         The number of times, the drawables should be restarted, as an {@link Integer} value
+     */
+    private void restartDrawables(final int count) {
+        for (int i = 0; i < count; i++) {
+            for (CircularProgressDrawable drawable : drawables) {
+                drawable.stop();
+                drawable.start();
+            }
+        }
+    }
+
+    /**
+     * Animates the drawables, which have been started, and asserts, that no objects are allocated
+     * while frames are dispatched and the drawables are drawn.
+     */
+    private void assertFramesDoNotAllocate() {
+        CountingCanvas canvas = new CountingCanvas();
+        runFrames(canvas, 0, WARM_UP_FRAME_COUNT);
+        canvas.count = 0;
+        callback.count = 0;
+        long before = getAllocatedBytes();
+        long overhead = getAllocatedBytes() - before;
+        long start = getAllocatedBytes();
+        runFrames(canvas, WARM_UP_FRAME_COUNT, FRAME_COUNT);
+        long allocatedBytes = getAllocatedBytes() - start - overhead;
+        assertEquals(FRAME_COUNT * DRAWABLE_COUNT, canvas.count);
+        assertTrue(callback.count > 0);
+        assertEquals(0, allocatedBytes);
+    }
+
+    /**
+     * Prevents the {@link FrameClock} from being driven by the {@link
+     * android.view.Choreographer}, which allows the test to dispatch frames explicitly.
+     */
+    @Before
+    public final void setUp() {
+        ShadowChoreographer.setPostFrameCallbackDelay(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops the drawables, which have been animated by the test.
+     */
+    @After
+    public final void tearDown() {
+        if (drawables != null) {
+            for (CircularProgressDrawable drawable : drawables) {
+                drawable.stop();
+            }
+        }
+
+        assertEquals(0, FrameClock.getInstance().getCount());
+    }
+
+    /**
+     * Tests, that animating drawables, which use a single color, does not allocate any objects.
+     */
+    @Test
+    public final void testFramesDoNotAllocate() {
+        startDrawables(false, false, null);
+        assertFramesDoNotAllocate();
+    }
+
+    /**
+     * Tests, that animating drawables, which cycle through multiple colors, does not allocate any
+     * objects.
+     */
+    @Test
+    public final void testFramesDoNotAllocateWhenUsingMultipleColors() {
+        startDrawables(false, false, new int[]{Color.BLUE, Color.RED, Color.GREEN});
+        assertFramesDoNotAllocate();
+    }
+
+    /**
+     * Tests, that restarting drawables, which have already been started before, does not allocate
+     * any objects.
+     */
+    @Test
+    public final void testRestartDoesNotAllocate() {
+        startDrawables(false, false, null);
+        runFrames(new CountingCanvas(), 0, WARM_UP_FRAME_COUNT);
+        restartDrawables(WARM_UP_FRAME_COUNT);
+        long before = getAllocatedBytes();
+        long overhead = getAllocatedBytes() - before;
+        long start = getAllocatedBytes();
+        restartDrawables(FRAME_COUNT);
+        long allocatedBytes = getAllocatedBytes() - start - overhead;
+        assertEquals(0, allocatedBytes);
+    }
+
+    /**
+     * Tests, that animating drawables, which use the atlas mode, does not allocate any objects.
+     */
+    @Test
+    public final void testFramesDoNotAllocateWhenUsingAtlas() {
+        startDrawables(true, false, null);
+        assertFramesDoNotAllocate();
+    }
+
+    /**
+     * Tests, that animating drawables, which use the gradient mode, does not allocate any objects.
+     */
+    @Test
+    public final void testFramesDoNotAllocateWhenUsingGradient() {
+        startDrawables(false, true, null);
+        assertFramesDoNotAllocate();
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 - 2019 Michael Rapp
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package de.mrapp.android.view.drawable;
+
+import org.junit.Test;
+
+import static de.mrapp.android.view.drawable.SpinnerGeometry.ANGLE_ANIMATION_DURATION;
+import static de.mrapp.android.view.drawable.SpinnerGeometry.CYCLE_DURATION;
+import static de.mrapp.android.view.drawable.SpinnerGeometry.MAX_DEGREES;
+import static de.mrapp.android.view.drawable.SpinnerGeometry.MIN_SWEEP_ANGLE;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the functionality of the class {@link SpinnerGeometry}.
+ *
+ * @author Michael Rapp
+ */
+public class SpinnerGeometryTest {
+
+    /**
+     * The maximum difference between angles, which are considered equal, in degrees.
+     */
+    private static final float DELTA = 0.001f;
+
+    /**
+     * The angle, the tail and the head of the arc advance by during each cycle.
+     */
+    private static final int CYCLE_ADVANCE = MAX_DEGREES - MIN_SWEEP_ANGLE * 2;
+
+    /**
+     * Returns the angle, the arc is rotated by at a specific time.
+     *
+     * @param elapsedTime
+     *         The time, which has passed since the animation has been started, in milliseconds as
+     *         a {@link Long} value
+     * @return The angle, the arc is rotated by, in degrees as a {@link Float} value
+     */
+    private static float getRotation(final long elapsedTime) {
+        return (elapsedTime % ANGLE_ANIMATION_DURATION) * MAX_DEGREES /
+                (float) ANGLE_ANIMATION_DURATION;
+    }
+
+    /**
+     * Returns a specific angle, normalized to the range between 0 (inclusive) and 360
+     * (exclusive).
+     *
+     * @param angle
+     *         The angle, which should be normalized, in degrees as a {@link Float} value
+     * @return The normalized angle in degrees as a {@link Float} value
+     */
+    private static float normalize(final float angle) {
+        return ((angle % MAX_DEGREES) + MAX_DEGREES) % MAX_DEGREES;
+    }
+
+    /**
+     * Tests, that the arc has its maximum size at the beginning of the animation.
+     */
+    @Test
+    public final void testInitialGeometry() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+        assertEquals(0, geometry.getStartAngle(), DELTA);
+        assertEquals(MAX_DEGREES - MIN_SWEEP_ANGLE, geometry.getSweepAngle(), DELTA);
+        assertEquals(0, geometry.getCycle());
+        assertEquals(0, geometry.getCycleFraction(), DELTA);
+    }
+
+    /**
+     * Tests, that the tail has caught up with the head in the middle of each cycle.
+     */
+    @Test
+    public final void testHalfCycle() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+
+        for (int cycle = 0; cycle < 5; cycle++) {
+            long elapsedTime = cycle * CYCLE_DURATION + CYCLE_DURATION / 2;
+            geometry.update(elapsedTime);
+            float tail = (cycle + 1) * CYCLE_ADVANCE;
+            assertEquals(MIN_SWEEP_ANGLE, geometry.getSweepAngle(), DELTA);
+            assertEquals(normalize(getRotation(elapsedTime) + tail),
+                    normalize(geometry.getStartAngle()), DELTA);
+            assertEquals(cycle, geometry.getCycle());
+            assertEquals(0.5f, geometry.getCycleFraction(), DELTA);
+        }
+    }
+
+    /**
+     * Tests, that a cycle takes 1200 milliseconds and that the head and the tail of the arc have
+     * advanced by the same angle at the end of each cycle.
+     */
+    @Test
+    public final void testCycleBoundaries() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+
+        for (int cycle = 1; cycle < 5; cycle++) {
+            long elapsedTime = cycle * CYCLE_DURATION;
+            geometry.update(elapsedTime);
+            float tail = cycle * CYCLE_ADVANCE;
+            assertEquals(MAX_DEGREES - MIN_SWEEP_ANGLE, geometry.getSweepAngle(), DELTA);
+            assertEquals(normalize(getRotation(elapsedTime) + tail),
+                    normalize(geometry.getStartAngle()), DELTA);
+            assertEquals(cycle, geometry.getCycle());
+            assertEquals(0, geometry.getCycleFraction(), DELTA);
+        }
+    }
+
+    /**
+     * Tests, that a cycle of the animation takes 1200 milliseconds and that the arc is rotated once
+     * every 2000 milliseconds.
+     */
+    @Test
+    public final void testDurations() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+        geometry.update(1199);
+        assertEquals(0, geometry.getCycle());
+        geometry.update(1200);
+        assertEquals(1, geometry.getCycle());
+        assertEquals(0, geometry.getCycleFraction(), DELTA);
+        geometry.update(1800);
+        float startAngle = geometry.getStartAngle();
+        geometry.update(2300);
+        assertEquals(90, normalize(geometry.getStartAngle() - startAngle), DELTA);
+    }
+
+    /**
+     * Tests, that consecutive cycles are appended seamlessly.
+     */
+    @Test
+    public final void testCycleBoundariesAreContinuous() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+
+        for (int cycle = 1; cycle < 5; cycle++) {
+            geometry.update(cycle * CYCLE_DURATION - 1);
+            float previousStartAngle = geometry.getStartAngle();
+            float previousSweepAngle = geometry.getSweepAngle();
+            geometry.update(cycle * CYCLE_DURATION);
+            assertEquals(previousSweepAngle, geometry.getSweepAngle(), 1);
+            assertEquals(0, normalize(geometry.getStartAngle() - previousStartAngle), 1);
+        }
+    }
+
+    /**
+     * Tests, that the arc is rotated by 360 degrees every 2000 milliseconds at a constant speed.
+     * During the second half of a cycle, the tail of the arc does not move, which means that the
+     * start angle only changes because of the rotation. The tested interval includes the end of
+     * the first rotation.
+     */
+    @Test
+    public final void testRotation() {
+        SpinnerGeometry geometry = new SpinnerGeometry();
+        long firstTime = CYCLE_DURATION + CYCLE_DURATION / 2;
+        long secondTime = 2 * CYCLE_DURATION - 1;
+        geometry.update(firstTime);
+        float firstStartAngle = geometry.getStartAngle();
+        geometry.update(secondTime);
+        float secondStartAngle = geometry.getStartAngle();
+        assertEquals(normalize((secondTime - firstTime) * MAX_DEGREES /
+                        (float) ANGLE_ANIMATION_DURATION),
+                normalize(secondStartAngle - firstStartAngle), DELTA);
+    }
+
+}